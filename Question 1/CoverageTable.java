@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Precomputed "max levels coverable with k samples and m tests" table for
+// k = 2..maxK, persisted as a flat little-endian long file and memory-mapped.
+//
+// File layout (all longs):
+//   [0] MAGIC  [1] maxK  [2] maxN  [3 .. maxK + 1] row start offsets for k = 2..maxK, [maxK + 2] end
+//   followed by row k = coverage(k, 1), coverage(k, 2), ... up to the first value >= maxN
+public class CoverageTable {
+    private static final long MAGIC = 0x43_4F_56_54_42_4C_01L; // "COVTBL" v1
+    private static final int HEADER = 3;
+
+    private final int maxK;
+    private final long maxN;
+    private final LongBuffer table;
+
+    private CoverageTable(int maxK, long maxN, LongBuffer table) {
+        this.maxK = maxK;
+        this.maxN = maxN;
+        this.table = table;
+    }
+
+    // Maps an existing table file, or builds and writes it first if the file
+    // is missing or was built with different limits
+    public static CoverageTable open(Path file, int maxK, long maxN) throws IOException {
+        if (maxK < 2) throw new IllegalArgumentException("maxK must be at least 2");
+        if (maxN < 1) throw new IllegalArgumentException("maxN must be positive");
+
+        if (Files.exists(file)) {
+            CoverageTable existing = load(file);
+            if (existing != null && existing.maxK == maxK && existing.maxN == maxN) {
+                return existing;
+            }
+        }
+        build(file, maxK, maxN);
+        return load(file);
+    }
+
+    private static CoverageTable load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < (HEADER + 2) * Long.BYTES || size % Long.BYTES != 0) return null;
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            LongBuffer table = mapped.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            if (table.get(0) != MAGIC) return null;
+
+            int maxK = (int) table.get(1);
+            long maxN = table.get(2);
+            if (maxK < 2 || HEADER + maxK > table.limit() || table.get(HEADER + maxK - 1) != table.limit()) return null;
+            return new CoverageTable(maxK, maxN, table);
+        }
+    }
+
+    private static void build(Path file, int maxK, long maxN) throws IOException {
+        // Row k holds coverage(k, m) for m = 1..minTests(k, maxN)
+        long[] offsets = new long[maxK];
+        long next = HEADER + maxK;
+        for (int k = 2; k <= maxK; k++) {
+            offsets[k - 2] = next;
+            next += CriticalTemperature.minTests(k, maxN);
+        }
+        offsets[maxK - 1] = next;
+        if (next > Integer.MAX_VALUE / Long.BYTES) {
+            throw new IllegalArgumentException("Coverage table for maxK=" + maxK + ", maxN=" + maxN + " does not fit in one mapping");
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, next * Long.BYTES);
+            LongBuffer out = mapped.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            out.put(0, MAGIC);
+            out.put(1, maxK);
+            out.put(2, maxN);
+            for (int i = 0; i < maxK; i++) out.put(HEADER + i, offsets[i]);
+
+            // coverage(k, m) = coverage(k - 1, m - 1) + coverage(k, m - 1) + 1, with coverage(1, m) = m
+            for (int k = 2; k <= maxK; k++) {
+                long row = offsets[k - 2];
+                long len = offsets[k - 1] - row;
+                long prevRow = k > 2 ? offsets[k - 3] : -1;
+                long last = 0;
+                for (long m = 1; m <= len; m++) {
+                    long below = m == 1 ? 0 : (prevRow < 0 ? m - 1 : out.get((int) (prevRow + m - 2)));
+                    last = saturatedAdd(saturatedAdd(below, last), 1);
+                    out.put((int) (row + m - 1), last);
+                }
+            }
+            mapped.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    // Minimum number of tests to find the critical level among n levels with k samples
+    public long minTests(int k, long n) {
+        if (k < 1) throw new IllegalArgumentException("k must be at least 1");
+        if (n <= 0) return 0;
+        if (k == 1) return n;
+        if (k > maxK || n > maxN) return CriticalTemperature.minTests(k, n);
+
+        // First m whose coverage reaches n
+        int lo = (int) table.get(HEADER + k - 2);
+        int hi = (int) table.get(HEADER + k - 1) - 1;
+        int start = lo;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (table.get(mid) >= n) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo - start + 1;
+    }
+
+    // Inverse query: the largest n that k samples can resolve within m tests
+    public long maxLevels(int k, long m) {
+        if (k < 1) throw new IllegalArgumentException("k must be at least 1");
+        if (m <= 0) return 0;
+        if (k <= maxK && k > 1) {
+            long row = table.get(HEADER + k - 2);
+            if (m <= table.get(HEADER + k - 1) - row) return table.get((int) (row + m - 1));
+        }
+        return CriticalTemperature.maxLevels(k, m);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(System.getProperty("java.io.tmpdir"), "coverage-64.bin");
+        CoverageTable coverage = CoverageTable.open(file, 64, 1L << 32);
+
+        System.out.println(coverage.minTests(1, 2));  // Output: 2
+        System.out.println(coverage.minTests(2, 6));  // Output: 3
+        System.out.println(coverage.minTests(3, 14)); // Output: 4
+        System.out.println(coverage.maxLevels(3, 4)); // Output: 14
+    }
+}
@@ -1,33 +1,136 @@
+import java.util.*;
+
 public class CriticalTemperature {
     public static int minTests(int k, int n) {
+        return (int) minTests(k, (long) n);
+    }
+
+    public static long minTests(int k, long n) {
+        if (k < 1) throw new IllegalArgumentException("k must be at least 1");
+
         // Edge case: If there are no temperature levels, no tests are needed
-        if (n == 0) {
+        if (n <= 0) {
             return 0;
         }
-        
+
         // Edge case: If there is only one sample, we must check one by one
         if (k == 1) {
             return n;
         }
-        
-        // DP table where dp[k][m] represents the maximum n that can be checked
-        int[][] dp = new int[k + 1][n + 1];
-        
-        int m = 0;  // Number of attempts
-        while (dp[k][m] < n) {
-            m++;
-            for (int i = 1; i <= k; i++) {
-                dp[i][m] = dp[i - 1][m - 1] + dp[i][m - 1] + 1;
+
+        // Binary search the smallest m whose coverage reaches n
+        return searchTests(k, n, 1, n);
+    }
+
+    // Answers many (k, n) queries at once. Queries sharing the same k are
+    // processed in increasing n, so each answer is searched for starting from
+    // the previous one instead of from scratch. Ordering uses primitive sorts:
+    // k packed with the query index, then n packed with the index within each k.
+    public static long[] minTests(int[] ks, long[] ns) {
+        if (ks.length != ns.length) throw new IllegalArgumentException("ks and ns must have the same length");
+
+        int q = ks.length;
+        long[] result = new long[q];
+        long[] byK = new long[q];
+        int pending = 0;
+        for (int i = 0; i < q; i++) {
+            int k = ks[i];
+            long n = ns[i];
+            if (k < 1) throw new IllegalArgumentException("k must be at least 1");
+            if (n <= 0) {
+                result[i] = 0;
+            } else if (k == 1) {
+                result[i] = n;
+            } else if (n > Integer.MAX_VALUE) {
+                // Too wide to pack next to the index; answered on its own
+                result[i] = searchTests(k, n, 1, n);
+            } else {
+                byK[pending++] = (long) k << 32 | i;
+            }
+        }
+        Arrays.sort(byK, 0, pending);
+
+        long[] byN = new long[pending];
+        int i = 0;
+        while (i < pending) {
+            int k = (int) (byK[i] >>> 32);
+            int size = 0;
+            for (; i < pending && (int) (byK[i] >>> 32) == k; i++) {
+                int index = (int) byK[i];
+                byN[size++] = ns[index] << 32 | index;
             }
+            Arrays.sort(byN, 0, size);
+            solveSorted(k, byN, size, result);
         }
-        
-        return m;
+        return result;
+    }
+
+    // Answers byN[0 .. size), packed as n << 32 | index in increasing n, for one k
+    private static void solveSorted(int k, long[] byN, int size, long[] result) {
+        long prev = 0; // Answer for the previous (smaller) n
+        for (int j = 0; j < size; j++) {
+            long n = byN[j] >>> 32;
+            int index = (int) byN[j];
+            if (prev > 0 && coverage(k, prev, n) >= n) {
+                result[index] = prev;
+                continue;
+            }
+
+            // Gallop upwards from the previous answer, then binary search the gap
+            long lo = prev + 1, step = 1, hi = lo;
+            while (coverage(k, hi, n) < n) {
+                lo = hi + 1;
+                hi = hi > n - step ? n : hi + step;
+                step <<= 1;
+            }
+            prev = searchTests(k, n, lo, hi);
+            result[index] = prev;
+        }
+    }
+
+    // Smallest m in [lo, hi] with coverage(k, m) >= n; coverage(k, hi) must reach n
+    private static long searchTests(int k, long n, long lo, long hi) {
+        while (lo < hi) {
+            long mid = lo + (hi - lo) / 2;
+            if (coverage(k, mid, n) >= n) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    // Inverse query: the largest n that k samples can resolve within m tests
+    public static long maxLevels(int k, long m) {
+        if (k < 1) throw new IllegalArgumentException("k must be at least 1");
+        if (m <= 0) return 0;
+        return coverage(k, m, Long.MAX_VALUE);
+    }
+
+    // Maximum number of levels that can be checked with k samples and m tests,
+    // i.e. C(m, 1) + C(m, 2) + ... + C(m, k), saturated at cap to avoid overflow
+    static long coverage(int k, long m, long cap) {
+        long total = 0, term = 1;
+        long limit = Math.min(k, m);
+        for (long i = 1; i <= limit; i++) {
+            // term = term * (m - i + 1) / i, split so the product cannot overflow
+            long a = m - i + 1;
+            long q = term / i, r = term % i;
+            if (q > cap / a) return cap;
+            term = q * a + r * a / i;
+            if (term >= cap - total) return cap;
+            total += term;
+        }
+        return total;
     }
 
     public static void main(String[] args) {
         System.out.println(minTests(1, 2));  // Output: 2
         System.out.println(minTests(2, 6));  // Output: 3
         System.out.println(minTests(3, 14)); // Output: 4
+
+        long[] batch = minTests(new int[]{1, 2, 3, 2}, new long[]{2, 6, 14, 1_000_000_000_000L});
+        System.out.println(Arrays.toString(batch)); // Output: [2, 3, 4, 1414214]
     }
 }
-
@@ -0,0 +1,77 @@
+import java.util.*;
+
+public class CriticalTemperatureBenchmark {
+    // Original full-table DP, kept here as the baseline being compared against
+    private static int minTestsTable(int k, int n) {
+        if (n == 0) return 0;
+        if (k == 1) return n;
+
+        int[][] dp = new int[k + 1][n + 1];
+        int m = 0;
+        while (dp[k][m] < n) {
+            m++;
+            for (int i = 1; i <= k; i++) {
+                dp[i][m] = dp[i - 1][m - 1] + dp[i][m - 1] + 1;
+            }
+        }
+        return m;
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        int queries = 2_000;
+        int[] ks = new int[queries];
+        long[] ns = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            ks[i] = 2 + random.nextInt(8);
+            ns[i] = 1 + random.nextInt(20_000);
+        }
+
+        // Correctness check against the table version
+        for (int i = 0; i < queries; i++) {
+            if (CriticalTemperature.minTests(ks[i], ns[i]) != minTestsTable(ks[i], (int) ns[i])) {
+                throw new AssertionError("Mismatch for k=" + ks[i] + ", n=" + ns[i]);
+            }
+        }
+
+        // The table DP against the new solver, on the same queries
+        long start, checksum = 0;
+        for (int run = 0; run < 3; run++) {
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) checksum += minTestsTable(ks[i], (int) ns[i]);
+            long tableNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) checksum -= CriticalTemperature.minTests(ks[i], ns[i]);
+            long solverNanos = System.nanoTime() - start;
+
+            System.out.printf("%d queries: table %8.2f ms, solver %8.2f ms%n", queries, tableNanos / 1e6, solverNanos / 1e6);
+        }
+
+        // Batch against one call per query, including n beyond the int range. The
+        // first few runs are dominated by JIT warm-up (even Arrays.sort is still
+        // interpreted), and the batch only wins once both paths are compiled.
+        int many = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int[] manyKs = new int[many];
+        long[] manyNs = new long[many];
+        for (int i = 0; i < many; i++) {
+            manyKs[i] = 1 + random.nextInt(9);
+            manyNs[i] = random.nextInt(50) == 0 ? random.nextLong(1L << 62) : random.nextInt(20_001);
+        }
+        for (int run = 0; run < 12; run++) {
+            start = System.nanoTime();
+            long[] single = new long[many];
+            for (int i = 0; i < many; i++) single[i] = CriticalTemperature.minTests(manyKs[i], manyNs[i]);
+            long singleNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long[] batch = CriticalTemperature.minTests(manyKs, manyNs);
+            long batchNanos = System.nanoTime() - start;
+
+            if (!Arrays.equals(single, batch)) throw new AssertionError("Batch differs from single calls");
+            for (long answer : batch) checksum += answer;
+            System.out.printf("%d queries: single %8.2f ms, batch %8.2f ms%n", many, singleNanos / 1e6, batchNanos / 1e6);
+        }
+        System.out.println("checksum: " + checksum);
+    }
+}
@@ -1,37 +1,425 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 public class kthsmallestproduct {
 
-    public static int findKthSmallestProduct(int[] returns1, int[] returns2, int k) {
-        // Define the search space using int (risk of overflow if numbers are large)
-        int left = returns1[0] * returns2[0];
-        int right = returns1[returns1.length - 1] * returns2[returns2.length - 1];
+    // How count passes over returns1 are executed; both modes give identical results
+    public enum Mode { SEQUENTIAL, PARALLEL }
 
-        while (left < right) {
-            int mid = left + (right - left) / 2;
-            if (countPairs(returns1, returns2, mid) < k) {
-                left = mid + 1;
-            } else {
-                right = mid;
-            }
+    // Rows per fork-join leaf when counting in parallel
+    private static final int PARALLEL_CHUNK = 1 << 16;
+
+    public static long findKthSmallestProduct(int[] returns1, int[] returns2, long k) {
+        return findKthSmallestProducts(returns1, returns2, new long[]{k})[0];
+    }
+
+    public static long[] findKthSmallestProducts(int[] returns1, int[] returns2, long[] ks) {
+        return findKthSmallestProducts(IntBuffer.wrap(returns1), IntBuffer.wrap(returns2), ks, Mode.SEQUENTIAL);
+    }
+
+    // Answers several ranks over the same pair of sorted arrays in one search.
+    // All queries start in one value interval. Each round draws a random sample
+    // of the products inside every live interval, brackets every query's rank
+    // with two sample pivots and counts only at those pivots, so the rank width
+    // shrinks by roughly sqrt(SAMPLE_SIZE) per round. A round costs two passes
+    // over the rows however many intervals are live: one sweep that samples
+    // them all, and one count at all of their pivots. An interval is enumerated
+    // and sorted directly, in the same sweep, once it holds only a few products
+    // per row.
+    //
+    // The inputs may be heap buffers or memory-mapped files (see mapSortedInts);
+    // the remaining elements of each buffer are used.
+    public static long[] findKthSmallestProducts(IntBuffer returns1, IntBuffer returns2, long[] ks, Mode mode) {
+        returns1 = returns1.slice();
+        returns2 = returns2.slice();
+        int n = returns1.limit(), m = returns2.limit();
+        long total = (long) n * m;
+        int q = ks.length;
+        if (q == 0) return new long[0];
+        if (n == 0 || m == 0) throw new IllegalArgumentException("returns1 and returns2 must not be empty");
+        for (long k : ks) {
+            if (k < 1 || k > total) throw new IllegalArgumentException("k must be between 1 and " + total);
         }
+        int[] order = rankOrder(ks);
+
+        // The extreme products of two sorted arrays are always corner products
+        long c1 = (long) returns1.get(0) * returns2.get(0);
+        long c2 = (long) returns1.get(0) * returns2.get(m - 1);
+        long c3 = (long) returns1.get(n - 1) * returns2.get(0);
+        long c4 = (long) returns1.get(n - 1) * returns2.get(m - 1);
+        long left = Math.min(Math.min(c1, c2), Math.min(c3, c4));
+        long right = Math.max(Math.max(c1, c2), Math.max(c3, c4));
 
-        return left;
+        long[] result = new long[q];
+        new Selection(returns1, returns2, mode, ks, order, result).run(left, right, total);
+        return result;
     }
 
-    private static int countPairs(int[] returns1, int[] returns2, int target) {
-        int count = 0;
-        for (int num1 : returns1) {
-            int low = 0, high = returns2.length;
+    // Query indices by increasing rank. Ranks can take 62 bits, so unlike the batched
+    // minTests they cannot share a long with the index; a sorted copy of the ranks
+    // places each index instead, with no boxing or comparator.
+    private static int[] rankOrder(long[] ks) {
+        long[] sorted = ks.clone();
+        Arrays.sort(sorted);
+        int[] order = new int[ks.length];
+        int[] taken = new int[ks.length]; // indices already placed from each first position
+        for (int i = 0; i < ks.length; i++) {
+            int low = 0, high = ks.length;
             while (low < high) {
-                int mid = (low + high) / 2;
-                if (num1 * returns2[mid] <= target) { 
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] < ks[i]) {
                     low = mid + 1;
                 } else {
                     high = mid;
                 }
             }
-            count += low;
+            order[low + taken[low]++] = i;
+        }
+        return order;
+    }
+
+    // Maps a file of sorted little-endian 32-bit values without copying it onto the heap
+    public static IntBuffer mapSortedInts(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % Integer.BYTES != 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a mappable int file: " + file + " (" + size + " bytes)");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+    }
+
+    // Sample drawn per query in an interval, up to MAX_SAMPLE_SIZE per interval; the
+    // bracket around each query is about four standard deviations of the estimate
+    private static final int SAMPLE_SIZE = 1 << 15;
+    private static final int MAX_SAMPLE_SIZE = 1 << 19;
+
+    private static final class Selection {
+        private final IntBuffer returns1, returns2;
+        private final Mode mode;
+        private final long[] ks;
+        private final int[] order;
+        private final long[] result;
+        private final SplittableRandom random = new SplittableRandom(0x5EED);
+
+        Selection(IntBuffer returns1, IntBuffer returns2, Mode mode, long[] ks, int[] order, long[] result) {
+            this.returns1 = returns1;
+            this.returns2 = returns2;
+            this.mode = mode;
+            this.ks = ks;
+            this.order = order;
+            this.result = result;
+        }
+
+        // Resolves every query; all ranks lie in (0, total], the products in [left, right]
+        void run(long left, long right, long total) {
+            List<Interval> live = new ArrayList<>();
+            open(live, left, right, 0, total, 0, order.length);
+            while (!live.isEmpty()) {
+                sweep(live);
+
+                // Intervals stay in value order, so their pivots concatenate into one sorted list
+                List<Interval> sampled = new ArrayList<>();
+                List<long[]> splits = new ArrayList<>();
+                int pivotCount = 0;
+                for (Interval interval : live) {
+                    if (interval.enumerated) {
+                        answer(interval);
+                    } else {
+                        long[] pivots = pivots(interval);
+                        sampled.add(interval);
+                        splits.add(pivots);
+                        pivotCount += pivots.length;
+                    }
+                }
+                long[] targets = new long[pivotCount];
+                int p = 0;
+                for (long[] pivots : splits) {
+                    System.arraycopy(pivots, 0, targets, p, pivots.length);
+                    p += pivots.length;
+                }
+                long[] counts = count(targets);
+
+                // Pivots split [left, right] into [left, p0], [p0 + 1, p1], ..., [pLast + 1, right]
+                List<Interval> next = new ArrayList<>();
+                p = 0;
+                for (int s = 0; s < sampled.size(); s++) {
+                    Interval interval = sampled.get(s);
+                    long[] pivots = splits.get(s);
+                    long lo = interval.left, countLo = interval.countLeft;
+                    int first = interval.from;
+                    for (int t = 0; t <= pivots.length; t++) {
+                        long hi = t < pivots.length ? pivots[t] : interval.right;
+                        long countHi = t < pivots.length ? counts[p++] : interval.countRight;
+
+                        // Queries are sorted by rank, so the ones answered in [lo, hi] form a run
+                        int last = first;
+                        while (last < interval.to && ks[order[last]] <= countHi) last++;
+
+                        open(next, lo, hi, countLo, countHi, first, last);
+                        lo = hi + 1;
+                        countLo = countHi;
+                        first = last;
+                    }
+                }
+                live = next;
+            }
+        }
+
+        // Queues the queries order[from..to), whose ranks all lie in (countLeft, countRight],
+        // where countLeft = countPairs(left - 1) and countRight = countPairs(right)
+        private void open(List<Interval> live, long left, long right, long countLeft, long countRight, int from, int to) {
+            if (from == to) return;
+            if (left == right) {
+                for (int i = from; i < to; i++) result[order[i]] = left;
+                return;
+            }
+            long width = countRight - countLeft;
+            Interval interval = new Interval(returns2, left, right, countLeft, countRight, from, to, width <= windowSize());
+            if (interval.enumerated) {
+                interval.values = new long[(int) width];
+            } else {
+                // Queries sharing an interval share one larger sample, which narrows every
+                // bracket at almost no cost to the sweep. Sorted random ranks let it be
+                // drawn in one forward walk over the rows.
+                int size = (int) Math.min(MAX_SAMPLE_SIZE, (long) SAMPLE_SIZE * (to - from));
+                interval.values = new long[size];
+                for (int s = 0; s < size; s++) interval.values[s] = random.nextLong(width);
+                Arrays.sort(interval.values);
+            }
+            live.add(interval);
+        }
+
+        // One walk over the rows fills every live interval's sample or window
+        private void sweep(List<Interval> live) {
+            Interval[] intervals = live.toArray(new Interval[0]);
+            for (int i = 0; i < returns1.limit(); i++) {
+                int a = returns1.get(i);
+                for (Interval interval : intervals) interval.take(a);
+            }
+        }
+
+        private void answer(Interval interval) {
+            long[] window = interval.values;
+            Arrays.sort(window);
+            for (int i = interval.from; i < interval.to; i++) {
+                result[order[i]] = window[(int) (ks[order[i]] - interval.countLeft - 1)];
+            }
+        }
+
+        private long[] count(long[] targets) {
+            if (mode == Mode.PARALLEL) {
+                return ForkJoinPool.commonPool().invoke(new CountTask(returns1, returns2, targets, 0, returns1.limit()));
+            }
+            return countPairs(returns1, returns2, targets, 0, returns1.limit());
+        }
+
+        // Sorted, distinct split values in [left, right - 1] that bracket every query's rank
+        private long[] pivots(Interval interval) {
+            long[] sample = interval.values;
+            Arrays.sort(sample);
+            long left = interval.left, right = interval.right;
+            long width = interval.countRight - interval.countLeft;
+            int size = sample.length, slack = 2 * (int) Math.sqrt(size);
+
+            long[] pivots = new long[2 * (interval.to - interval.from)];
+            int count = 0;
+            for (int i = interval.from; i < interval.to; i++) {
+                long rank = ks[order[i]] - interval.countLeft - 1;
+                // rank * size can overflow once the interval holds more than 2^44 products
+                int estimate = (int) Math.min(size - 1, Math.max(0, (double) rank / width * size));
+                if (estimate - slack >= 0) pivots[count++] = sample[estimate - slack] - 1;
+                if (estimate + slack < size) pivots[count++] = sample[estimate + slack];
+            }
+
+            Arrays.sort(pivots, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                long pivot = pivots[i];
+                if (pivot < left || pivot >= right || (distinct > 0 && pivots[distinct - 1] == pivot)) continue;
+                pivots[distinct++] = pivot;
+            }
+
+            // A degenerate sample (e.g. all equal values) falls back to bisection to guarantee progress
+            if (distinct == 0) return new long[]{left + (right - left) / 2};
+            return Arrays.copyOf(pivots, distinct);
+        }
+
+        // Largest rank interval that is enumerated and sorted instead of narrowed further
+        private long windowSize() {
+            return Math.max(1 << 12, ((long) returns1.limit() + returns2.limit()) >> 4);
+        }
+    }
+
+    // A live value interval [left, right] during one round. values holds either the
+    // whole window of products (enumerated) or sorted sample ranks, which the row
+    // sweep replaces in place by the products at those ranks.
+    private static final class Interval {
+        final long left, right, countLeft, countRight;
+        final int from, to;
+        final boolean enumerated;
+        final RowCursor rows;
+        final IntBuffer returns2;
+        long[] values;
+        int filled;
+        long rowFirst; // rank within the interval of the current row's first product
+
+        Interval(IntBuffer returns2, long left, long right, long countLeft, long countRight, int from, int to,
+                 boolean enumerated) {
+            this.returns2 = returns2;
+            this.left = left;
+            this.right = right;
+            this.countLeft = countLeft;
+            this.countRight = countRight;
+            this.from = from;
+            this.to = to;
+            this.enumerated = enumerated;
+            this.rows = new RowCursor(returns2, left, right);
+        }
+
+        // Consumes the next row, with multiplier a
+        void take(int a) {
+            if (filled == values.length) return;
+            rows.advance(a);
+            if (enumerated) {
+                for (int j = rows.from; j < rows.to; j++) values[filled++] = (long) a * returns2.get(j);
+                return;
+            }
+            long rowEnd = rowFirst + rows.to - rows.from;
+            while (filled < values.length && values[filled] < rowEnd) {
+                values[filled] = (long) a * returns2.get(rows.from + (int) (values[filled] - rowFirst));
+                filled++;
+            }
+            rowFirst = rowEnd;
+        }
+    }
+
+    // Walks the rows of returns1 in order and yields, for each multiplier a, the run
+    // [from, to) of j with low <= a * returns2[j] <= high. The run ends move
+    // monotonically within each sign range of returns1, so a full walk is O(n + m).
+    private static final class RowCursor {
+        private final IntBuffer returns2;
+        private final long low, high;
+        private int negLow, negHigh, posLow, posHigh;
+        int from, to;
+
+        RowCursor(IntBuffer returns2, long low, long high) {
+            this.returns2 = returns2;
+            this.low = low;
+            this.high = high;
+            this.posLow = this.posHigh = returns2.limit();
+        }
+
+        void advance(int a) {
+            if (a > 0) {
+                from = posLow = boundary(a, returns2, low - 1, posLow);
+                to = posHigh = boundary(a, returns2, high, posHigh);
+            } else if (a < 0) {
+                from = negHigh = boundary(a, returns2, high, negHigh);
+                to = negLow = boundary(a, returns2, low - 1, negLow);
+            } else {
+                from = 0;
+                to = low <= 0 && 0 <= high ? returns2.limit() : 0;
+            }
+        }
+    }
+
+    // First j where a * returns2[j] <= target stops holding (a > 0) or starts holding (a < 0),
+    // walked from the previous row's answer
+    private static int boundary(int a, IntBuffer returns2, long target, int j) {
+        boolean ascending = a > 0;
+        while (j < returns2.limit() && ((long) a * returns2.get(j) <= target) == ascending) j++;
+        while (j > 0 && ((long) a * returns2.get(j - 1) <= target) != ascending) j--;
+        return j;
+    }
+
+    // Same boundary found by binary search, used to seed a walk that starts mid-array
+    private static int boundarySearch(int a, IntBuffer returns2, long target) {
+        boolean ascending = a > 0;
+        int low = 0, high = returns2.limit();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (((long) a * returns2.get(mid) <= target) == ascending) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // For every target, the number of pairs (i, j), rowFrom <= i < rowTo, with
+    // returns1[i] * returns2[j] <= target. For a > 0 the matching j are a prefix of
+    // returns2 and for a < 0 a suffix; each target's boundary only moves one way
+    // within each sign range, so the pass is O((n + m) * targets) in a single walk
+    // over the rows.
+    static long[] countPairs(IntBuffer returns1, IntBuffer returns2, long[] targets, int rowFrom, int rowTo) {
+        int m = returns2.limit(), t = targets.length;
+        long[] counts = new long[t];
+        int[] neg = new int[t], pos = new int[t];
+        boolean seenNeg = false, seenPos = false;
+        long zeros = 0;
+        for (int i = rowFrom; i < rowTo; i++) {
+            int a = returns1.get(i);
+            if (a > 0) {
+                for (int s = 0; s < t; s++) {
+                    pos[s] = seenPos ? boundary(a, returns2, targets[s], pos[s]) : boundarySearch(a, returns2, targets[s]);
+                    counts[s] += pos[s];
+                }
+                seenPos = true;
+            } else if (a < 0) {
+                for (int s = 0; s < t; s++) {
+                    neg[s] = seenNeg ? boundary(a, returns2, targets[s], neg[s]) : boundarySearch(a, returns2, targets[s]);
+                    counts[s] += m - neg[s];
+                }
+                seenNeg = true;
+            } else {
+                zeros++;
+            }
+        }
+        // Any pair involving a zero has product 0
+        for (int s = 0; s < t; s++) {
+            if (targets[s] >= 0) counts[s] += zeros * m;
+        }
+        return counts;
+    }
+
+    // Splits the rows of returns1 across the fork-join pool; every leaf seeds its
+    // boundaries with a binary search and then walks like the sequential pass
+    private static final class CountTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+        private final IntBuffer returns1, returns2;
+        private final long[] targets;
+        private final int rowFrom, rowTo;
+
+        CountTask(IntBuffer returns1, IntBuffer returns2, long[] targets, int rowFrom, int rowTo) {
+            this.returns1 = returns1;
+            this.returns2 = returns2;
+            this.targets = targets;
+            this.rowFrom = rowFrom;
+            this.rowTo = rowTo;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (rowTo - rowFrom <= PARALLEL_CHUNK) {
+                return countPairs(returns1, returns2, targets, rowFrom, rowTo);
+            }
+            int mid = (rowFrom + rowTo) >>> 1;
+            CountTask leftHalf = new CountTask(returns1, returns2, targets, rowFrom, mid);
+            leftHalf.fork();
+            long[] counts = new CountTask(returns1, returns2, targets, mid, rowTo).compute();
+            long[] leftCounts = leftHalf.join();
+            for (int s = 0; s < counts.length; s++) counts[s] += leftCounts[s];
+            return counts;
         }
-        return count;
     }
 
     public static void main(String[] args) {
@@ -44,5 +432,26 @@ public class kthsmallestproduct {
         int[] returns2_2 = {2, 4};
         int k2 = 6;
         System.out.println(findKthSmallestProduct(returns1_2, returns2_2, k2));  // Output: 0
+
+        // Regression cases for mixed signs and products beyond the int range
+        check(findKthSmallestProduct(new int[]{-2, -1, 0, 1, 2}, new int[]{-3, -1, 2, 4, 5}, 3), -6);
+        check(findKthSmallestProduct(new int[]{-100000, 100000}, new int[]{-100000, 100000}, 1), -10_000_000_000L);
+        check(findKthSmallestProduct(new int[]{-100000, 100000}, new int[]{-100000, 100000}, 4), 10_000_000_000L);
+        check(findKthSmallestProduct(new int[]{-4, -2}, new int[]{-3, -1}, 1), 2);
+        check(findKthSmallestProduct(returns1, returns2, 1), 6);
+        check(findKthSmallestProduct(returns1_2, returns2_2, 1), -16);
+
+        long[] quantiles = findKthSmallestProducts(returns1_2, returns2_2, new long[]{8, 1, 4, 6});
+        System.out.println(Arrays.toString(quantiles));  // Output: [12, -16, -4, 0]
+
+        long[] parallel = findKthSmallestProducts(IntBuffer.wrap(returns1_2), IntBuffer.wrap(returns2_2),
+                new long[]{8, 1, 4, 6}, Mode.PARALLEL);
+        System.out.println(Arrays.toString(parallel));  // Output: [12, -16, -4, 0]
+
+        check(findKthSmallestProducts(new int[0], new int[0], new long[0]).length, 0);
+    }
+
+    private static void check(long actual, long expected) {
+        if (actual != expected) throw new AssertionError("Expected " + expected + " but got " + actual);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+public class kthsmallestproductBenchmark {
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(42);
+
+        // Cross-check against brute force on small mixed-sign inputs
+        for (int round = 0; round < 2_000; round++) {
+            int[] a = sortedRandom(random, 1 + random.nextInt(12), 50);
+            int[] b = sortedRandom(random, 1 + random.nextInt(12), 50);
+            long[] products = new long[a.length * b.length];
+            int p = 0;
+            for (int x : a) for (int y : b) products[p++] = (long) x * y;
+            Arrays.sort(products);
+            long k = 1 + random.nextInt(products.length);
+            long actual = kthsmallestproduct.findKthSmallestProduct(a, b, k);
+            if (actual != products[(int) k - 1]) {
+                throw new AssertionError("Mismatch for k=" + k + ": " + actual + " != " + products[(int) k - 1]);
+            }
+            long[] ks = {1, k, products.length, (k + 1) / 2};
+            long[] batch = kthsmallestproduct.findKthSmallestProducts(a, b, ks);
+            long[] parallel = kthsmallestproduct.findKthSmallestProducts(IntBuffer.wrap(a), IntBuffer.wrap(b), ks,
+                    kthsmallestproduct.Mode.PARALLEL);
+            for (int i = 0; i < ks.length; i++) {
+                if (batch[i] != products[(int) ks[i] - 1]) throw new AssertionError("Batch mismatch for k=" + ks[i]);
+                if (parallel[i] != batch[i]) throw new AssertionError("Parallel mismatch for k=" + ks[i]);
+            }
+        }
+
+        // Larger inputs, so products exceed windowSize() and the sampling and pivot path runs
+        for (int round = 0; round < 300; round++) {
+            int[] a = sortedMixed(random, 100 + random.nextInt(300));
+            int[] b = sortedMixed(random, 100 + random.nextInt(300));
+            long[] products = new long[a.length * b.length];
+            int p = 0;
+            for (int x : a) for (int y : b) products[p++] = (long) x * y;
+            Arrays.sort(products);
+            long[] ks = new long[1 + random.nextInt(8)];
+            for (int i = 0; i < ks.length; i++) ks[i] = 1 + random.nextInt(products.length);
+            long[] batch = kthsmallestproduct.findKthSmallestProducts(a, b, ks);
+            for (int i = 0; i < ks.length; i++) {
+                long expected = products[(int) ks[i] - 1];
+                if (batch[i] != expected) throw new AssertionError("Large batch mismatch for k=" + ks[i]);
+                if (kthsmallestproduct.findKthSmallestProduct(a, b, ks[i]) != expected) {
+                    throw new AssertionError("Large mismatch for k=" + ks[i]);
+                }
+            }
+        }
+        System.out.println("validation passed");
+
+        int size = 1_000_000;
+        int[] returns1 = sortedRandom(random, size, 1_000_000_000);
+        int[] returns2 = sortedRandom(random, size, 1_000_000_000);
+        long[] ks = {1, (long) size * size / 100, (long) size * size / 2, (long) size * size - 1};
+
+        for (long k : ks) {
+            long start = System.nanoTime();
+            long product = kthsmallestproduct.findKthSmallestProduct(returns1, returns2, k);
+            long nanos = System.nanoTime() - start;
+            System.out.printf("k=%-15d product=%-22d %8.2f ms%n", k, product, nanos / 1e6);
+        }
+
+        // Batched quantiles versus one independent search per quantile
+        long total = (long) size * size;
+        double[] levels = {0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99};
+        long[] quantileKs = new long[levels.length];
+        for (int i = 0; i < levels.length; i++) quantileKs[i] = Math.max(1, (long) (levels[i] * total));
+
+        long start = System.nanoTime();
+        long[] independent = new long[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            independent[i] = kthsmallestproduct.findKthSmallestProduct(returns1, returns2, quantileKs[i]);
+        }
+        long independentNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long[] batched = kthsmallestproduct.findKthSmallestProducts(returns1, returns2, quantileKs);
+        long batchedNanos = System.nanoTime() - start;
+
+        if (!Arrays.equals(independent, batched)) throw new AssertionError("Batched quantiles differ");
+        System.out.printf("%d quantiles: independent %8.2f ms, batched %8.2f ms%n",
+                levels.length, independentNanos / 1e6, batchedNanos / 1e6);
+
+        // Memory-mapped inputs, sequential versus fork-join counting
+        Path file1 = Files.createTempFile("returns1", ".bin");
+        Path file2 = Files.createTempFile("returns2", ".bin");
+        try {
+            writeInts(file1, returns1);
+            writeInts(file2, returns2);
+            IntBuffer mapped1 = kthsmallestproduct.mapSortedInts(file1);
+            IntBuffer mapped2 = kthsmallestproduct.mapSortedInts(file2);
+
+            for (kthsmallestproduct.Mode mode : kthsmallestproduct.Mode.values()) {
+                start = System.nanoTime();
+                long[] answers = kthsmallestproduct.findKthSmallestProducts(mapped1, mapped2, quantileKs, mode);
+                long nanos = System.nanoTime() - start;
+                if (!Arrays.equals(answers, batched)) throw new AssertionError(mode + " results differ");
+                System.out.printf("mapped %-10s %8.2f ms (%d cores)%n", mode, nanos / 1e6,
+                        Runtime.getRuntime().availableProcessors());
+            }
+        } finally {
+            Files.deleteIfExists(file1);
+            Files.deleteIfExists(file2);
+        }
+    }
+
+    private static void writeInts(Path file, int[] values) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(values.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asIntBuffer().put(values);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) channel.write(bytes);
+        }
+    }
+
+    // Mixed signs drawn from one of: a small range with heavy duplicates, the full int
+    // range, or a few repeated extreme values mixed with zeros
+    private static int[] sortedMixed(Random random, int size) {
+        int kind = random.nextInt(3);
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (kind == 0) {
+                values[i] = random.nextInt(7) - 3;
+            } else if (kind == 1) {
+                values[i] = random.nextInt();
+            } else {
+                int[] pool = {Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1, 1};
+                values[i] = random.nextBoolean() ? pool[random.nextInt(pool.length)] : random.nextInt();
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    private static int[] sortedRandom(Random random, int size, int bound) {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) values[i] = random.nextInt(2 * bound + 1) - bound;
+        Arrays.sort(values);
+        return values;
+    }
+}
@@ -1,16 +1,41 @@
+import java.util.*;
+
 public class ClosestPair {
+    // Returns the lexicographically smallest index pair among all pairs at the
+    // minimum Manhattan distance, in O(n log n)
     public static int[] findClosestPair(int[] x_coords, int[] y_coords) {
         int n = x_coords.length;
-        int minDistance = Integer.MAX_VALUE;
+        if (n < 2) return new int[]{-1, -1};
+
+        // Step 1: Sort point ids by x (then id) through packed primitive keys
+        long[] byX = new long[n];
+        for (int i = 0; i < n; i++) byX[i] = ((long) x_coords[i] << 32) | i;
+        Arrays.sort(byX);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = (int) byX[i];
+
+        // Step 2: Divide and conquer, tracking the smallest pair at the best distance so far
+        int[] result = {-1, -1};
+        long minDistance = closest(x_coords, y_coords, order, new int[n], 0, n, Long.MAX_VALUE, result);
+
+        // Step 3: Coincident points are resolved separately, since the strip scan
+        // would have to compare every pair of duplicates
+        return minDistance == 0 ? smallestDuplicatePair(x_coords, y_coords) : result;
+    }
+
+    // Original all-pairs scan, kept as the reference for validation
+    public static int[] findClosestPairBruteForce(int[] x_coords, int[] y_coords) {
+        int n = x_coords.length;
+        long minDistance = Long.MAX_VALUE;
         int[] result = {-1, -1};
 
         // Iterate through all unique pairs
         for (int i = 0; i < n; i++) {
             for (int j = i + 1; j < n; j++) {
-                int distance = Math.abs(x_coords[i] - x_coords[j]) + Math.abs(y_coords[i] - y_coords[j]);
+                long distance = distance(x_coords, y_coords, i, j);
 
-                // Update the minimum distance and lexicographically smallest pair
-                if (distance < minDistance || (distance == minDistance && (i < result[0] || (i == result[0] && j < result[1])))) {
+                // Pairs are visited in lexicographic order, so only a strictly smaller distance wins
+                if (distance < minDistance) {
                     minDistance = distance;
                     result[0] = i;
                     result[1] = j;
@@ -20,6 +45,87 @@ public class ClosestPair {
         return result;
     }
 
+    static long distance(int[] x_coords, int[] y_coords, int i, int j) {
+        return Math.abs((long) x_coords[i] - x_coords[j]) + Math.abs((long) y_coords[i] - y_coords[j]);
+    }
+
+    // Minimum distance among order[lo..hi), which is sorted by x on entry and by y on exit.
+    // Every pair at distance <= best is examined, so result ends up as the smallest pair
+    // at the final distance. Stops early once a distance of 0 is found.
+    private static long closest(int[] xs, int[] ys, int[] order, int[] buffer, int lo, int hi, long best, int[] result) {
+        if (hi - lo <= 3) {
+            for (int i = lo; i < hi; i++) {
+                for (int j = i + 1; j < hi; j++) best = consider(xs, ys, order[i], order[j], best, result);
+            }
+            // Insertion sort the tiny range by y
+            for (int i = lo + 1; i < hi; i++) {
+                int p = order[i], j = i - 1;
+                while (j >= lo && ys[order[j]] > ys[p]) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = p;
+            }
+            return best;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        long midX = xs[order[mid]];
+        best = closest(xs, ys, order, buffer, lo, mid, best, result);
+        if (best == 0) return 0;
+        best = closest(xs, ys, order, buffer, mid, hi, best, result);
+        if (best == 0) return 0;
+
+        // Merge both halves by y
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) buffer[k++] = ys[order[i]] <= ys[order[j]] ? order[i++] : order[j++];
+        while (i < mid) buffer[k++] = order[i++];
+        while (j < hi) buffer[k++] = order[j++];
+        System.arraycopy(buffer, lo, order, lo, hi - lo);
+
+        // Points within best of the dividing line, in y order
+        int strip = lo;
+        for (int p = lo; p < hi; p++) {
+            if (Math.abs(xs[order[p]] - midX) <= best) buffer[strip++] = order[p];
+        }
+
+        // Manhattan distance is at least |dy|, and only a constant number of
+        // strip points can lie within best of each other in y
+        for (int p = lo; p < strip && best > 0; p++) {
+            for (int q = p + 1; q < strip && (long) ys[buffer[q]] - ys[buffer[p]] <= best; q++) {
+                best = consider(xs, ys, buffer[p], buffer[q], best, result);
+            }
+        }
+        return best;
+    }
+
+    private static long consider(int[] xs, int[] ys, int i, int j, long best, int[] result) {
+        long distance = distance(xs, ys, i, j);
+        if (distance > best) return best;
+
+        int first = Math.min(i, j), second = Math.max(i, j);
+        if (distance < best || first < result[0] || (first == result[0] && second < result[1])) {
+            result[0] = first;
+            result[1] = second;
+        }
+        return distance;
+    }
+
+    // Smallest i with a coincident j > i, paired with its smallest such j. With a cell
+    // size of 1 every grid cell holds exactly one coordinate.
+    private static int[] smallestDuplicatePair(int[] xs, int[] ys) {
+        int n = xs.length;
+        PointGrid grid = new PointGrid(1, n);
+
+        // Insert in descending order so every chain lists ids in ascending order
+        for (int i = n - 1; i >= 0; i--) grid.add(i, xs[i], ys[i]);
+
+        for (int i = 0; i < n; i++) {
+            if (grid.next(i) >= 0) return new int[]{i, grid.next(i)};
+        }
+        return new int[]{-1, -1};
+    }
+
     public static void main(String[] args) {
         int[] x_coords = {1, 2, 3, 2, 4};
         int[] y_coords = {2, 3, 1, 2, 3};
@@ -28,4 +134,3 @@ public class ClosestPair {
         System.out.println("[" + closestPair[0] + ", " + closestPair[1] + "]");
     }
 }
-
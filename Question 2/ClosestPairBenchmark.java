@@ -0,0 +1,138 @@
+import java.util.*;
+
+public class ClosestPairBenchmark {
+    public static void main(String[] args) {
+        Random random = new Random(42);
+
+        // Randomized validation against the brute-force scan, including dense ties and duplicates
+        for (int round = 0; round < 5_000; round++) {
+            int n = 2 + random.nextInt(60);
+            int range = 1 + random.nextInt(round % 3 == 0 ? 5 : 1_000);
+            int[] xs = new int[n], ys = new int[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = random.nextInt(2 * range + 1) - range;
+                ys[i] = random.nextInt(2 * range + 1) - range;
+            }
+            int[] expected = ClosestPair.findClosestPairBruteForce(xs, ys);
+            int[] actual = ClosestPair.findClosestPair(xs, ys);
+            if (!Arrays.equals(expected, actual)) {
+                throw new AssertionError("Mismatch: expected " + Arrays.toString(expected) + " but got " + Arrays.toString(actual)
+                        + " for x=" + Arrays.toString(xs) + " y=" + Arrays.toString(ys));
+            }
+        }
+        System.out.println("randomized validation passed");
+
+        // The streaming index must agree with the batch method after every batch of insertions
+        for (int round = 0; round < 500; round++) {
+            int n = 2 + random.nextInt(300);
+            int range = 1 + random.nextInt(round % 3 == 0 ? 5 : 10_000);
+            int[] xs = new int[n], ys = new int[n];
+            ClosestPairIndex index = new ClosestPairIndex();
+            for (int i = 0; i < n; i++) {
+                xs[i] = random.nextInt(2 * range + 1) - range;
+                ys[i] = random.nextInt(2 * range + 1) - range;
+                index.insert(xs[i], ys[i]);
+                if (i % 7 == 1 || i == n - 1) {
+                    int[] expected = ClosestPair.findClosestPair(Arrays.copyOf(xs, i + 1), Arrays.copyOf(ys, i + 1));
+                    if (!Arrays.equals(expected, index.closestPair())) {
+                        throw new AssertionError("Index mismatch after " + (i + 1) + " points: expected "
+                                + Arrays.toString(expected) + " but got " + Arrays.toString(index.closestPair()));
+                    }
+                }
+            }
+        }
+        System.out.println("streaming index validation passed");
+
+        // KD-tree pair queries against sorting every pair
+        for (int round = 0; round < 1_000; round++) {
+            int n = 2 + random.nextInt(80);
+            int range = 1 + random.nextInt(round % 3 == 0 ? 5 : 1_000);
+            int[] xs = new int[n], ys = new int[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = random.nextInt(2 * range + 1) - range;
+                ys[i] = random.nextInt(2 * range + 1) - range;
+            }
+            PointKdTree tree = new PointKdTree(xs, ys);
+            for (PointKdTree.Metric metric : PointKdTree.Metric.values()) {
+                long[][] all = new long[n * (n - 1) / 2][];
+                int p = 0;
+                for (int i = 0; i < n; i++) {
+                    for (int j = i + 1; j < n; j++) {
+                        long dx = xs[i] - xs[j], dy = ys[i] - ys[j];
+                        long d = metric == PointKdTree.Metric.EUCLIDEAN ? dx * dx + dy * dy : Math.abs(dx) + Math.abs(dy);
+                        all[p++] = new long[]{d, i, j};
+                    }
+                }
+                Arrays.sort(all, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0])
+                        : a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(a[2], b[2]));
+
+                int k = 1 + random.nextInt(all.length);
+                List<int[]> closest = tree.kClosestPairs(k, metric);
+                for (int t = 0; t < k; t++) {
+                    if (closest.get(t)[0] != all[t][1] || closest.get(t)[1] != all[t][2]) {
+                        throw new AssertionError(metric + " kClosestPairs mismatch at rank " + t);
+                    }
+                }
+                if (metric == PointKdTree.Metric.MANHATTAN
+                        && !Arrays.equals(closest.get(0), ClosestPair.findClosestPair(xs, ys))) {
+                    throw new AssertionError("kClosestPairs(1) disagrees with findClosestPair");
+                }
+
+                long d = all[random.nextInt(all.length)][0];
+                long radius = metric == PointKdTree.Metric.EUCLIDEAN ? (long) Math.sqrt(d) : d;
+                long limit = metric == PointKdTree.Metric.EUCLIDEAN ? radius * radius : radius;
+                int expected = 0;
+                for (long[] pair : all) if (pair[0] <= limit) expected++;
+                List<int[]> within = tree.pairsWithin(radius, metric);
+                if (within.size() != expected) throw new AssertionError(metric + " pairsWithin size mismatch");
+            }
+        }
+        System.out.println("kd-tree validation passed");
+
+        // Every point identical: all distances tie, which must not make the search quadratic
+        int copies = 2_000_000;
+        int[] same = new int[copies];
+        Arrays.fill(same, 7);
+        long tieStart = System.nanoTime();
+        List<int[]> tied = new PointKdTree(same, same).kClosestPairs(3, PointKdTree.Metric.MANHATTAN);
+        long tieNanos = System.nanoTime() - tieStart;
+        if (!Arrays.equals(tied.get(0), new int[]{0, 1}) || !Arrays.equals(tied.get(2), new int[]{0, 3})) {
+            throw new AssertionError("Identical points: wrong pairs");
+        }
+        System.out.printf("n=%d identical points, kd-tree top 3 %8.2f ms%n", copies, tieNanos / 1e6);
+
+        for (int n : new int[]{10_000, 1_000_000, 4_000_000}) {
+            int[] xs = new int[n], ys = new int[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = random.nextInt();
+                ys[i] = random.nextInt();
+            }
+            long start = System.nanoTime();
+            int[] pair = ClosestPair.findClosestPair(xs, ys);
+            long nanos = System.nanoTime() - start;
+            System.out.printf("n=%-9d pair=%-20s %8.2f ms%n", n, Arrays.toString(pair), nanos / 1e6);
+
+            start = System.nanoTime();
+            ClosestPairIndex index = new ClosestPairIndex();
+            for (int i = 0; i < n; i++) index.insert(xs[i], ys[i]);
+            nanos = System.nanoTime() - start;
+            if (!Arrays.equals(pair, index.closestPair())) throw new AssertionError("Index disagrees at n=" + n);
+            System.out.printf("  streaming index          %8.2f ms (%.0f ns/insert)%n", nanos / 1e6, (double) nanos / n);
+
+            start = System.nanoTime();
+            PointKdTree tree = new PointKdTree(xs, ys);
+            List<int[]> top = tree.kClosestPairs(100, PointKdTree.Metric.MANHATTAN);
+            nanos = System.nanoTime() - start;
+            if (!Arrays.equals(pair, top.get(0))) throw new AssertionError("KD-tree disagrees at n=" + n);
+            System.out.printf("  kd-tree build + top 100   %8.2f ms%n", nanos / 1e6);
+
+            if (n <= 10_000) {
+                start = System.nanoTime();
+                int[] reference = ClosestPair.findClosestPairBruteForce(xs, ys);
+                nanos = System.nanoTime() - start;
+                if (!Arrays.equals(pair, reference)) throw new AssertionError("Brute force disagrees at n=" + n);
+                System.out.printf("  brute force              %8.2f ms%n", nanos / 1e6);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.*;
+
+// Maintains the closest pair (Manhattan distance, lexicographically smallest ids on
+// ties) of a growing point set. Points get ids 0, 1, 2, ... in insertion order, so
+// the answer always matches ClosestPair.findClosestPair on the same arrays.
+//
+// Points live in a uniform grid whose cell size is the current best distance d.
+// All stored points are at least d apart, so every cell holds O(1) points and a new
+// point only has to look at its 3 x 3 neighbouring cells. The grid is rebuilt only
+// when d shrinks, which for points arriving in random order happens O(log n) times
+// in expectation, giving O(1) amortized work per insertion.
+public class ClosestPairIndex {
+    private int[] xs = new int[16];
+    private int[] ys = new int[16];
+    private int size;
+
+    private long minDistance = Long.MAX_VALUE;
+    private int first = -1, second = -1;
+    private PointGrid grid;
+
+    // Adds a point and returns its id
+    public int insert(int x, int y) {
+        if (size == xs.length) {
+            xs = Arrays.copyOf(xs, size * 2);
+            ys = Arrays.copyOf(ys, size * 2);
+        }
+        int id = size++;
+        xs[id] = x;
+        ys[id] = y;
+
+        if (id == 0) return id;
+        if (id == 1) {
+            minDistance = ClosestPair.distance(xs, ys, 0, 1);
+            first = 0;
+            second = 1;
+            rebuild();
+            return id;
+        }
+
+        // Closest stored point within the current best distance, smallest id on ties
+        long cellX = grid.cell(x), cellY = grid.cell(y);
+        long nearest = Long.MAX_VALUE;
+        int partner = -1;
+        for (long cx = cellX - 1; cx <= cellX + 1; cx++) {
+            for (long cy = cellY - 1; cy <= cellY + 1; cy++) {
+                for (int j = grid.first(cx, cy); j >= 0; j = grid.next(j)) {
+                    long distance = ClosestPair.distance(xs, ys, id, j);
+                    if (distance < nearest || (distance == nearest && j < partner)) {
+                        nearest = distance;
+                        partner = j;
+                    }
+                }
+            }
+        }
+
+        // The new pair ends in the largest id, so on a tie it only wins with a smaller first id
+        if (nearest < minDistance) {
+            minDistance = nearest;
+            first = partner;
+            second = id;
+            rebuild();
+        } else {
+            if (nearest == minDistance && partner < first) {
+                first = partner;
+                second = id;
+            }
+            addToGrid(id);
+        }
+        return id;
+    }
+
+    // Current closest pair as {i, j} with i < j, or {-1, -1} with fewer than two points
+    public int[] closestPair() {
+        return new int[]{first, second};
+    }
+
+    // Current minimum distance, or Long.MAX_VALUE with fewer than two points
+    public long minDistance() {
+        return minDistance;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rebuild() {
+        grid = new PointGrid(Math.max(1, minDistance), size);
+        for (int i = 0; i < size; i++) addToGrid(i);
+    }
+
+    private void addToGrid(int id) {
+        // At distance 0 only the first point of each coordinate can ever be part of a
+        // better pair, which keeps duplicate chains at length one
+        if (minDistance == 0 && grid.first(grid.cell(xs[id]), grid.cell(ys[id])) >= 0) return;
+        grid.add(id, xs[id], ys[id]);
+    }
+
+    public static void main(String[] args) {
+        int[] x_coords = {1, 2, 3, 2, 4};
+        int[] y_coords = {2, 3, 1, 2, 3};
+
+        ClosestPairIndex index = new ClosestPairIndex();
+        for (int i = 0; i < x_coords.length; i++) {
+            index.insert(x_coords[i], y_coords[i]);
+            System.out.println(Arrays.toString(index.closestPair()));
+        }
+        // Output: [-1, -1], [0, 1], [0, 1], [0, 3], [0, 3]
+    }
+}
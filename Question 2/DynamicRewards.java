@@ -0,0 +1,81 @@
+import java.util.*;
+
+// Keeps the minimum reward total up to date while single ratings change.
+//
+// Every reward is max(L[i], R[i]), where L[i] is the length of the strictly
+// increasing run ending at i and R[i] the length of the strictly decreasing run
+// starting at i. Changing rating i only touches the comparisons with its two
+// neighbours, so L changes only on the run going right from i and R only on the
+// run going left from i. Each update walks those runs until the stored values
+// stop changing, which costs O(length of the affected runs) instead of O(n).
+public class DynamicRewards {
+    private final int[] ratings;
+    private final int[] left, right;   // L and R as described above
+    private long total;
+
+    public DynamicRewards(int[] ratings) {
+        int n = ratings.length;
+        this.ratings = ratings.clone();
+        this.left = new int[n];
+        this.right = new int[n];
+
+        // Left to Right Pass
+        for (int i = 0; i < n; i++) {
+            left[i] = i > 0 && ratings[i] > ratings[i - 1] ? left[i - 1] + 1 : 1;
+        }
+
+        // Right to Left Pass
+        for (int i = n - 1; i >= 0; i--) {
+            right[i] = i < n - 1 && ratings[i] > ratings[i + 1] ? right[i + 1] + 1 : 1;
+        }
+
+        for (int i = 0; i < n; i++) total += Math.max(left[i], right[i]);
+    }
+
+    public void updateRating(int i, int newValue) {
+        int n = ratings.length;
+        Objects.checkIndex(i, n);
+        if (ratings[i] == newValue) return;
+        ratings[i] = newValue;
+
+        // L can only change from i rightwards; the comparison with i + 1 changed too,
+        // so both i and i + 1 are always recomputed
+        for (int j = i; j < n; j++) {
+            int value = j > 0 && ratings[j] > ratings[j - 1] ? left[j - 1] + 1 : 1;
+            if (value == left[j] && j > i) break;
+            total += Math.max(value, right[j]) - Math.max(left[j], right[j]);
+            left[j] = value;
+        }
+
+        // R can only change from i leftwards, symmetrically
+        for (int j = i; j >= 0; j--) {
+            int value = j < n - 1 && ratings[j] > ratings[j + 1] ? right[j + 1] + 1 : 1;
+            if (value == right[j] && j < i) break;
+            total += Math.max(left[j], value) - Math.max(left[j], right[j]);
+            right[j] = value;
+        }
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public int rating(int i) {
+        return ratings[i];
+    }
+
+    public int size() {
+        return ratings.length;
+    }
+
+    public static void main(String[] args) {
+        DynamicRewards rewards = new DynamicRewards(new int[]{1, 0, 2});
+        System.out.println(rewards.total()); // Output: 5
+
+        rewards.updateRating(2, 0);
+        System.out.println(rewards.total()); // Output: 4
+
+        rewards.updateRating(1, 5);
+        System.out.println(rewards.total()); // Output: 4
+    }
+}
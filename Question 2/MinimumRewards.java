@@ -1,42 +1,179 @@
-import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 public class MinimumRewards {
-    public static int minRewards(int[] ratings) {
+    public static long minRewards(int[] ratings) {
+        Accumulator rewards = new Accumulator();
+        rewards.acceptAll(ratings, 0, ratings.length);
+        return rewards.total();
+    }
+
+    public static long minRewards(IntStream ratings) {
+        Accumulator rewards = new Accumulator();
+        ratings.sequential().forEach(rewards);
+        return rewards.total();
+    }
+
+    // Elements per chunk in the parallel mode
+    private static final int CHUNK = 1 << 16;
+
+    public static long minRewardsParallel(int[] ratings) {
+        return minRewardsParallel(ratings, ForkJoinPool.commonPool());
+    }
+
+    // Every reward is max(L, R), where L is the length of the strictly increasing run
+    // ending at the element and R the length of the strictly decreasing run starting
+    // there. Chunks are solved independently; only runs that cross a chunk boundary
+    // need the neighbouring chunk's values, which are reconciled in between.
+    public static long minRewardsParallel(int[] ratings, ForkJoinPool pool) {
         int n = ratings.length;
-        if (n == 0) return 0;
-        
-        int[] rewards = new int[n];
-        Arrays.fill(rewards, 1); // Every employee gets at least 1 reward
-        
-        // Left to Right Pass
-        for (int i = 1; i < n; i++) {
-            if (ratings[i] > ratings[i - 1]) {
-                rewards[i] = rewards[i - 1] + 1;
+        if (n <= CHUNK) return minRewards(ratings);
+
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        int[] lastL = new int[chunks];   // local L of each chunk's last element
+        int[] firstR = new int[chunks];  // local R of each chunk's first element
+        long[] sums = new long[chunks];
+
+        // Step 1: Local run lengths at both ends of every chunk
+        pool.invoke(new ChunkTask(ratings, 0, chunks, lastL, firstR, null, null, sums));
+
+        // Step 2: Carry runs across chunk boundaries; a run only passes through a chunk
+        // that is monotone over its whole length
+        int[] carryL = new int[chunks], carryR = new int[chunks];
+        int trueL = 0;
+        for (int c = 0; c < chunks; c++) {
+            int start = c * CHUNK, length = Math.min(n, start + CHUNK) - start;
+            carryL[c] = c > 0 && ratings[start] > ratings[start - 1] ? trueL : 0;
+            trueL = lastL[c] + (lastL[c] == length ? carryL[c] : 0);
+        }
+        int trueR = 0;
+        for (int c = chunks - 1; c >= 0; c--) {
+            int start = c * CHUNK, end = Math.min(n, start + CHUNK);
+            carryR[c] = end < n && ratings[end - 1] > ratings[end] ? trueR : 0;
+            trueR = firstR[c] + (firstR[c] == end - start ? carryR[c] : 0);
+        }
+
+        // Step 3: Sum every chunk with the reconciled boundary runs
+        pool.invoke(new ChunkTask(ratings, 0, chunks, null, null, carryL, carryR, sums));
+        long total = 0;
+        for (long sum : sums) total += sum;
+        return total;
+    }
+
+    // Without carries, records the local run lengths at both ends of each chunk;
+    // with carries, sums max(L, R) over each chunk
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] ratings;
+        private final int from, to;
+        private final int[] lastL, firstR, carryL, carryR;
+        private final long[] sums;
+
+        ChunkTask(int[] ratings, int from, int to, int[] lastL, int[] firstR, int[] carryL, int[] carryR, long[] sums) {
+            this.ratings = ratings;
+            this.from = from;
+            this.to = to;
+            this.lastL = lastL;
+            this.firstR = firstR;
+            this.carryL = carryL;
+            this.carryR = carryR;
+            this.sums = sums;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ChunkTask(ratings, from, mid, lastL, firstR, carryL, carryR, sums),
+                          new ChunkTask(ratings, mid, to, lastL, firstR, carryL, carryR, sums));
+                return;
+            }
+
+            int start = from * CHUNK, end = Math.min(ratings.length, start + CHUNK);
+            if (carryL == null) {
+                // Only the runs touching the chunk ends are walked, not the whole chunk
+                int l = 1;
+                while (end - l > start && ratings[end - l] > ratings[end - l - 1]) l++;
+                lastL[from] = l;
+                int r = 1;
+                while (start + r < end && ratings[start + r - 1] > ratings[start + r]) r++;
+                firstR[from] = r;
+                return;
             }
+
+            // Left to right: L for the chunk, seeded with the run coming from the left
+            int[] l = new int[end - start];
+            l[0] = carryL[from] + 1;
+            for (int i = start + 1; i < end; i++) l[i - start] = ratings[i] > ratings[i - 1] ? l[i - start - 1] + 1 : 1;
+
+            // Right to left: R on the fly, seeded with the run continuing to the right
+            int r = carryR[from] + 1;
+            long sum = Math.max(l[end - 1 - start], r);
+            for (int i = end - 2; i >= start; i--) {
+                r = ratings[i] > ratings[i + 1] ? r + 1 : 1;
+                sum += Math.max(l[i - start], r);
+            }
+            sums[from] = sum;
         }
-        
-        // Right to Left Pass
-        for (int i = n - 2; i >= 0; i--) {
-            if (ratings[i] > ratings[i + 1]) {
-                rewards[i] = Math.max(rewards[i], rewards[i + 1] + 1);
+    }
+
+    // Single-pass, constant-memory reward count over ratings seen one at a time.
+    //
+    // A strictly increasing run gives 1, 2, 3, ... so each step up costs up + 1.
+    // A strictly decreasing run gives ..., 3, 2, 1, so each step down raises every
+    // element of the run by one, costing down + 1; once the run is as long as the
+    // rise before it, the peak has to grow too. Equal neighbours reset both runs.
+    public static class Accumulator implements IntConsumer {
+        private long total;
+        private long count;
+        private int previous;
+        private long up, down, peak;
+
+        @Override
+        public void accept(int rating) {
+            if (count++ == 0) {
+                total = 1;
+            } else if (rating > previous) {
+                up++;
+                peak = up;
+                down = 0;
+                total += up + 1;
+            } else if (rating == previous) {
+                up = down = peak = 0;
+                total += 1;
+            } else {
+                up = 0;
+                down++;
+                // The peak absorbs the new step until the descent outgrows it
+                total += down + (peak >= down ? 0 : 1);
             }
+            previous = rating;
         }
-        
-        // Sum up all rewards
-        int totalRewards = 0;
-        for (int reward : rewards) {
-            totalRewards += reward;
+
+        // Feeds one chunk of a larger input, e.g. a buffer filled by a reader
+        public void acceptAll(int[] chunk, int from, int to) {
+            for (int i = from; i < to; i++) accept(chunk[i]);
+        }
+
+        public long total() {
+            return total;
+        }
+
+        public long count() {
+            return count;
         }
-        
-        return totalRewards;
     }
 
     public static void main(String[] args) {
         int[] ratings1 = {1, 0, 2};
         System.out.println(minRewards(ratings1)); // Output: 5
-        
+
         int[] ratings2 = {1, 2, 2};
         System.out.println(minRewards(ratings2)); // Output: 4
+
+        System.out.println(minRewards(IntStream.of(1, 3, 5, 4, 2, 1))); // Output: 13
+        System.out.println(minRewardsParallel(ratings1)); // Output: 5
     }
 }
-
@@ -0,0 +1,69 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+public class MinimumRewardsBenchmark {
+    public static void main(String[] args) {
+        Random random = new Random(42);
+
+        // Parallel results must match the sequential pass exactly, including runs
+        // spanning one or more whole chunks
+        for (int round = 0; round < 40; round++) {
+            int n = 1 + random.nextInt(600_000);
+            int[] ratings = new int[n];
+            int shape = round % 4;
+            for (int i = 0; i < n; i++) {
+                if (shape == 0) ratings[i] = random.nextInt(3);
+                else if (shape == 1) ratings[i] = i;
+                else if (shape == 2) ratings[i] = -i;
+                else ratings[i] = (i / 200_000) % 2 == 0 ? i % 200_000 : -(i % 200_000);
+            }
+            if (MinimumRewards.minRewards(ratings) != MinimumRewards.minRewardsParallel(ratings)) {
+                throw new AssertionError("Parallel mismatch for shape " + shape + ", n=" + n);
+            }
+        }
+        System.out.println("parallel validation passed");
+
+        // Incremental totals must match a full recomputation after every update
+        for (int round = 0; round < 200; round++) {
+            int n = 1 + random.nextInt(200);
+            int[] ratings = new int[n];
+            for (int i = 0; i < n; i++) ratings[i] = random.nextInt(5);
+            DynamicRewards dynamic = new DynamicRewards(ratings);
+            for (int update = 0; update < 200; update++) {
+                int i = random.nextInt(n);
+                ratings[i] = random.nextInt(5);
+                dynamic.updateRating(i, ratings[i]);
+                if (dynamic.total() != MinimumRewards.minRewards(ratings)) {
+                    throw new AssertionError("Incremental mismatch after update " + update);
+                }
+            }
+        }
+        System.out.println("incremental validation passed");
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 50_000_000;
+        int[] ratings = new int[n];
+        for (int i = 0; i < n; i++) ratings[i] = random.nextInt(1_000);
+
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            long sequential = MinimumRewards.minRewards(ratings);
+            long sequentialNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long parallel = MinimumRewards.minRewardsParallel(ratings);
+            long parallelNanos = System.nanoTime() - start;
+
+            if (sequential != parallel) throw new AssertionError("Totals differ");
+            System.out.printf("n=%d sequential %8.2f ms, parallel %8.2f ms on %d threads (%.1fx)%n",
+                    n, sequentialNanos / 1e6, parallelNanos / 1e6, ForkJoinPool.commonPool().getParallelism(),
+                    (double) sequentialNanos / parallelNanos);
+        }
+
+        DynamicRewards dynamic = new DynamicRewards(ratings);
+        int updates = 1_000_000;
+        long start = System.nanoTime();
+        for (int u = 0; u < updates; u++) dynamic.updateRating(random.nextInt(n), random.nextInt(1_000));
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%d incremental updates: %.0f ns/update (total %d)%n", updates, (double) nanos / updates, dynamic.total());
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.*;
+
+// Uniform grid over integer points. Each cell (floor(x / cellSize), floor(y / cellSize))
+// keeps a chain of point ids; cells live in an open-addressing table and chains in a
+// shared next[] array, so no objects are allocated per point.
+class PointGrid {
+    private final long cellSize;
+    private long[] keys;
+    private int[] heads;   // -1 marks an empty slot
+    private int cells;
+    private int[] next;
+
+    PointGrid(long cellSize, int expectedPoints) {
+        if (cellSize < 1) throw new IllegalArgumentException("cellSize must be positive");
+        this.cellSize = cellSize;
+        int capacity = Integer.highestOneBit(Math.max(4, expectedPoints) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.heads = new int[capacity];
+        Arrays.fill(heads, -1);
+        this.next = new int[Math.max(4, expectedPoints)];
+    }
+
+    long cellSize() {
+        return cellSize;
+    }
+
+    long cell(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    // Prepends the point to its cell's chain, so a chain lists ids in reverse insertion order
+    void add(int id, int x, int y) {
+        if (id >= next.length) next = Arrays.copyOf(next, Math.max(id + 1, next.length * 2));
+        if (2 * (cells + 1) > keys.length) rehash(keys.length * 2);
+
+        long key = key(cell(x), cell(y));
+        int slot = slot(keys, heads, key);
+        if (heads[slot] < 0) {
+            keys[slot] = key;
+            cells++;
+        }
+        next[id] = heads[slot];
+        heads[slot] = id;
+    }
+
+    // First id in the chain of the given cell, or -1 if it is empty
+    int first(long cellX, long cellY) {
+        return heads[slot(keys, heads, key(cellX, cellY))];
+    }
+
+    // Next id in the same chain, or -1 at the end
+    int next(int id) {
+        return next[id];
+    }
+
+    private static long key(long cellX, long cellY) {
+        return (cellX << 32) ^ (cellY & 0xFFFFFFFFL);
+    }
+
+    private static int slot(long[] keys, int[] heads, long key) {
+        int mask = keys.length - 1;
+        long h = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h ^ (h >>> 32)) & mask;
+        while (heads[slot] >= 0 && keys[slot] != key) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] newKeys = new long[capacity];
+        int[] newHeads = new int[capacity];
+        Arrays.fill(newHeads, -1);
+        for (int i = 0; i < keys.length; i++) {
+            if (heads[i] < 0) continue;
+            int slot = slot(newKeys, newHeads, keys[i]);
+            newKeys[slot] = keys[i];
+            newHeads[slot] = heads[i];
+        }
+        keys = newKeys;
+        heads = newHeads;
+    }
+}
@@ -0,0 +1,318 @@
+import java.util.*;
+
+// Static 2-d tree over integer points, stored as three flat arrays: point ids and
+// their coordinates in tree order. The tree is implicit: range [lo, hi) has its
+// splitting point at mid = (lo + hi) / 2, splits alternate between x and y by
+// depth, and small ranges are scanned as leaves. Node bounding boxes are derived
+// while descending, so no per-node data is stored.
+//
+// Euclidean distances are handled squared so every comparison stays exact.
+public class PointKdTree {
+    public enum Metric { MANHATTAN, EUCLIDEAN }
+
+    private static final int LEAF_SIZE = 8;
+
+    private final int n;
+    private final int[] ids, px, py;
+    private final int minX, maxX, minY, maxY;
+
+    // Current query state, reused across the recursive search
+    private int queryId, queryX, queryY;
+    private Metric metric;
+    private long radius;
+    private PairHeap heap;
+    private int[] found = new int[16];
+    private int foundCount;
+
+    public PointKdTree(int[] x_coords, int[] y_coords) {
+        n = x_coords.length;
+        ids = new int[n];
+        px = x_coords.clone();
+        py = y_coords.clone();
+        int loX = Integer.MAX_VALUE, hiX = Integer.MIN_VALUE, loY = Integer.MAX_VALUE, hiY = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+            loX = Math.min(loX, px[i]);
+            hiX = Math.max(hiX, px[i]);
+            loY = Math.min(loY, py[i]);
+            hiY = Math.max(hiY, py[i]);
+        }
+        minX = loX;
+        maxX = hiX;
+        minY = loY;
+        maxY = hiY;
+        build(0, n, 0);
+    }
+
+    // The k closest pairs as {i, j} with i < j, ordered by distance and then by ids
+    public List<int[]> kClosestPairs(int k, Metric metric) {
+        if (k < 0) throw new IllegalArgumentException("k must not be negative");
+        this.metric = metric;
+        heap = new PairHeap(k);
+
+        // Queries run in id order, so the worst kept pair never starts after the query
+        int[] byId = new int[n];
+        for (int t = 0; t < n; t++) byId[ids[t]] = t;
+        for (int i = 0; i < n && k > 0; i++) {
+            int t = byId[i];
+            queryId = i;
+            queryX = px[t];
+            queryY = py[t];
+            nearestSearch(0, n, 0, minX, maxX, minY, maxY);
+        }
+        List<int[]> pairs = heap.drainSorted();
+        heap = null;
+        return pairs;
+    }
+
+    // All pairs {i, j} with i < j within distance d, ordered by i and then j
+    public List<int[]> pairsWithin(long d, Metric metric) {
+        if (d < 0) throw new IllegalArgumentException("d must not be negative");
+        this.metric = metric;
+        radius = metric == Metric.EUCLIDEAN ? square(d) : d;
+
+        int[] byId = new int[n];
+        for (int t = 0; t < n; t++) byId[ids[t]] = t;
+
+        List<int[]> pairs = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int t = byId[i];
+            queryId = i;
+            queryX = px[t];
+            queryY = py[t];
+            foundCount = 0;
+            rangeSearch(0, n, 0, minX, maxX, minY, maxY);
+            Arrays.sort(found, 0, foundCount);
+            for (int f = 0; f < foundCount; f++) pairs.add(new int[]{i, found[f]});
+        }
+        return pairs;
+    }
+
+    // Quickselect the median of [lo, hi) along the depth's axis, then recurse
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= LEAF_SIZE) return;
+        int mid = (lo + hi) >>> 1;
+        int[] axis = depth % 2 == 0 ? px : py;
+
+        int left = lo, right = hi - 1;
+        while (left < right) {
+            int pivot = medianOfThree(axis[left], axis[(left + right) >>> 1], axis[right]);
+            int i = left, j = right;
+            while (i <= j) {
+                while (axis[i] < pivot) i++;
+                while (axis[j] > pivot) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            if (mid <= j) {
+                right = j;
+            } else if (mid >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    private static int medianOfThree(int a, int b, int c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private void swap(int i, int j) {
+        int t = ids[i]; ids[i] = ids[j]; ids[j] = t;
+        t = px[i]; px[i] = px[j]; px[j] = t;
+        t = py[i]; py[i] = py[j]; py[j] = t;
+    }
+
+    private void nearestSearch(int lo, int hi, int depth, int loX, int hiX, int loY, int hiY) {
+        if (heap.isFull()) {
+            // A tie with the worst pair only wins while the query is that pair's first id;
+            // a later query loses the tie-break, so ties prune too and duplicates stay linear
+            long bound = boxDistance(loX, hiX, loY, hiY), worst = heap.worstDistance();
+            if (bound > worst || (bound == worst && heap.worstFirst() < queryId)) return;
+        }
+
+        if (hi - lo <= LEAF_SIZE) {
+            for (int t = lo; t < hi; t++) offer(t);
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        offer(mid);
+        // Descend into the child on the query's side first so the bound tightens sooner
+        if (depth % 2 == 0) {
+            int split = px[mid];
+            if (queryX < split) {
+                nearestSearch(lo, mid, depth + 1, loX, split, loY, hiY);
+                nearestSearch(mid + 1, hi, depth + 1, split, hiX, loY, hiY);
+            } else {
+                nearestSearch(mid + 1, hi, depth + 1, split, hiX, loY, hiY);
+                nearestSearch(lo, mid, depth + 1, loX, split, loY, hiY);
+            }
+        } else {
+            int split = py[mid];
+            if (queryY < split) {
+                nearestSearch(lo, mid, depth + 1, loX, hiX, loY, split);
+                nearestSearch(mid + 1, hi, depth + 1, loX, hiX, split, hiY);
+            } else {
+                nearestSearch(mid + 1, hi, depth + 1, loX, hiX, split, hiY);
+                nearestSearch(lo, mid, depth + 1, loX, hiX, loY, split);
+            }
+        }
+    }
+
+    // Each unordered pair is offered once, from its smaller id
+    private void offer(int t) {
+        int other = ids[t];
+        if (other <= queryId) return;
+        heap.offer(distance(px[t], py[t]), queryId, other);
+    }
+
+    private void rangeSearch(int lo, int hi, int depth, int loX, int hiX, int loY, int hiY) {
+        if (boxDistance(loX, hiX, loY, hiY) > radius) return;
+
+        if (hi - lo <= LEAF_SIZE) {
+            for (int t = lo; t < hi; t++) collect(t);
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        collect(mid);
+        if (depth % 2 == 0) {
+            rangeSearch(lo, mid, depth + 1, loX, px[mid], loY, hiY);
+            rangeSearch(mid + 1, hi, depth + 1, px[mid], hiX, loY, hiY);
+        } else {
+            rangeSearch(lo, mid, depth + 1, loX, hiX, loY, py[mid]);
+            rangeSearch(mid + 1, hi, depth + 1, loX, hiX, py[mid], hiY);
+        }
+    }
+
+    private void collect(int t) {
+        if (ids[t] <= queryId || distance(px[t], py[t]) > radius) return;
+        if (foundCount == found.length) found = Arrays.copyOf(found, foundCount * 2);
+        found[foundCount++] = ids[t];
+    }
+
+    private long distance(int x, int y) {
+        long dx = Math.abs((long) x - queryX), dy = Math.abs((long) y - queryY);
+        return metric == Metric.EUCLIDEAN ? saturatedAdd(square(dx), square(dy)) : dx + dy;
+    }
+
+    // Lower bound on the distance from the query point to anything inside the box
+    private long boxDistance(int loX, int hiX, int loY, int hiY) {
+        long dx = queryX < loX ? (long) loX - queryX : queryX > hiX ? (long) queryX - hiX : 0;
+        long dy = queryY < loY ? (long) loY - queryY : queryY > hiY ? (long) queryY - hiY : 0;
+        return metric == Metric.EUCLIDEAN ? saturatedAdd(square(dx), square(dy)) : dx + dy;
+    }
+
+    private static long square(long v) {
+        return v > 3_037_000_499L ? Long.MAX_VALUE : v * v;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    // Bounded max-heap of pairs ordered by (distance, i, j), kept in parallel primitive arrays
+    private static final class PairHeap {
+        private final long[] distances;
+        private final int[] firsts, seconds;
+        private int size;
+
+        PairHeap(int capacity) {
+            distances = new long[capacity];
+            firsts = new int[capacity];
+            seconds = new int[capacity];
+        }
+
+        boolean isFull() {
+            return size == distances.length;
+        }
+
+        long worstDistance() {
+            return distances[0];
+        }
+
+        int worstFirst() {
+            return firsts[0];
+        }
+
+        void offer(long distance, int i, int j) {
+            if (distances.length == 0) return;
+            if (size < distances.length) {
+                set(size, distance, i, j);
+                siftUp(size++);
+            } else if (less(distance, i, j, 0)) {
+                set(0, distance, i, j);
+                siftDown(0);
+            }
+        }
+
+        List<int[]> drainSorted() {
+            int[][] pairs = new int[size][];
+            while (size > 0) {
+                pairs[size - 1] = new int[]{firsts[0], seconds[0]};
+                size--;
+                set(0, distances[size], firsts[size], seconds[size]);
+                siftDown(0);
+            }
+            return new ArrayList<>(Arrays.asList(pairs));
+        }
+
+        private boolean less(long distance, int i, int j, int slot) {
+            if (distance != distances[slot]) return distance < distances[slot];
+            if (i != firsts[slot]) return i < firsts[slot];
+            return j < seconds[slot];
+        }
+
+        private void set(int slot, long distance, int i, int j) {
+            distances[slot] = distance;
+            firsts[slot] = i;
+            seconds[slot] = j;
+        }
+
+        private void swap(int a, int b) {
+            long d = distances[a]; distances[a] = distances[b]; distances[b] = d;
+            int t = firsts[a]; firsts[a] = firsts[b]; firsts[b] = t;
+            t = seconds[a]; seconds[a] = seconds[b]; seconds[b] = t;
+        }
+
+        private void siftUp(int slot) {
+            while (slot > 0) {
+                int parent = (slot - 1) / 2;
+                if (!less(distances[parent], firsts[parent], seconds[parent], slot)) break;
+                swap(parent, slot);
+                slot = parent;
+            }
+        }
+
+        private void siftDown(int slot) {
+            while (true) {
+                int largest = slot, left = 2 * slot + 1, right = left + 1;
+                if (left < size && less(distances[largest], firsts[largest], seconds[largest], left)) largest = left;
+                if (right < size && less(distances[largest], firsts[largest], seconds[largest], right)) largest = right;
+                if (largest == slot) return;
+                swap(slot, largest);
+                slot = largest;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] x_coords = {1, 2, 3, 2, 4};
+        int[] y_coords = {2, 3, 1, 2, 3};
+
+        PointKdTree tree = new PointKdTree(x_coords, y_coords);
+        for (int[] pair : tree.kClosestPairs(3, Metric.MANHATTAN)) {
+            System.out.print(Arrays.toString(pair) + " ");
+        }
+        System.out.println(); // Output: [0, 3] [1, 3] [0, 1]
+
+        for (int[] pair : tree.pairsWithin(1, Metric.EUCLIDEAN)) {
+            System.out.print(Arrays.toString(pair) + " ");
+        }
+        System.out.println(); // Output: [0, 3] [1, 3]
+    }
+}
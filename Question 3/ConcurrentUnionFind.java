@@ -0,0 +1,83 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Lock-free disjoint sets: any number of threads may call find and union at once.
+//
+// A root is linked with a single compareAndSet on its own slot, so two threads can
+// never both link the same root. Roots are ordered by a hashed priority (index as
+// tie-break) and the lower one is hung under the higher one, which behaves like
+// random linking and keeps trees shallow without a separate size array. find
+// compresses with CAS-based path halving; a failed CAS only means another thread
+// already shortened that link.
+public class ConcurrentUnionFind implements DisjointSet {
+    private final AtomicIntegerArray parent;
+
+    public ConcurrentUnionFind(int n) {
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) parent.set(i, i);
+    }
+
+    public int find(int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) return x;
+            int gp = parent.get(p);
+            if (p != gp) parent.compareAndSet(x, p, gp);
+            x = gp;
+        }
+    }
+
+    public boolean union(int x, int y) {
+        while (true) {
+            int rootX = find(x);
+            int rootY = find(y);
+            if (rootX == rootY) return false;
+
+            if (higher(rootX, rootY)) {
+                int t = rootX;
+                rootX = rootY;
+                rootY = t;
+            }
+            // Succeeds only if rootX is still a root; otherwise retry from the new roots
+            if (parent.compareAndSet(rootX, rootX, rootY)) return true;
+        }
+    }
+
+    @Override
+    public boolean connected(int x, int y) {
+        while (true) {
+            int rootX = find(x);
+            int rootY = find(y);
+            if (rootX == rootY) return true;
+            // rootX may have been linked concurrently; only a still-current root is conclusive
+            if (parent.get(rootX) == rootX) return false;
+        }
+    }
+
+    private static boolean higher(int a, int b) {
+        int ha = priority(a), hb = priority(b);
+        return ha != hb ? ha > hb : a > b;
+    }
+
+    private static int priority(int x) {
+        int h = x * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int n = 1_000_000;
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+
+        // Four threads chain overlapping ranges together
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = offset; i + 1 < n; i += threads.length) sets.union(i, i + 1);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        System.out.println(sets.connected(0, n - 1)); // Output: true
+    }
+}
@@ -0,0 +1,11 @@
+// Disjoint-set operations shared by the sequential and concurrent implementations
+interface DisjointSet {
+    int find(int x);
+
+    // Merges the sets of x and y; returns false if they were already the same set
+    boolean union(int x, int y);
+
+    default boolean connected(int x, int y) {
+        return find(x) == find(y);
+    }
+}
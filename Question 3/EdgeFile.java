@@ -0,0 +1,198 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Minimum network cost straight from a binary edge dump, without building
+// int[][] connections. The file is a flat sequence of little-endian int records
+// (u, v, cost), 12 bytes each, read through FileChannel.map.
+//
+// Edges are taken in chunks of at most chunkEdges records. A single chunk is solved
+// in memory. Otherwise every chunk is sorted by cost and written to a temporary run
+// file, and a k-way merge of the mapped runs feeds Kruskal's union-find loop
+// directly, so only one chunk is ever on the heap.
+public class EdgeFile {
+    public static final int RECORD_BYTES = 3 * Integer.BYTES;
+
+    // Heap bytes per buffered edge: from, to, cost plus the two index arrays of the sort
+    private static final int BYTES_PER_CHUNK_EDGE = 5 * Integer.BYTES;
+
+    // Writes the edges in the record format read below
+    public static void write(Path file, int[] from, int[] to, int[] cost) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // One mapping per window keeps each below the 2 GB mapping limit
+            int window = 1 << 24;
+            for (int first = 0; first < cost.length; first += window) {
+                int count = Math.min(window, cost.length - first);
+                writeRecords(channel, first, from, to, cost, null, count);
+            }
+        }
+    }
+
+    // Sorted runs go to the system temp directory
+    public static long minTotalCost(int n, int[] modules, Path edgeFile) throws IOException {
+        return minTotalCost(n, modules, edgeFile, null);
+    }
+
+    // Chunk size chosen so a chunk uses at most a quarter of the maximum heap
+    public static long minTotalCost(int n, int[] modules, Path edgeFile, Path tempDir) throws IOException {
+        long budget = Runtime.getRuntime().maxMemory() / 4 / BYTES_PER_CHUNK_EDGE;
+        int chunkEdges = (int) Math.max(1 << 16, Math.min(budget, Integer.MAX_VALUE / RECORD_BYTES));
+        return minTotalCost(n, modules, edgeFile, chunkEdges, tempDir);
+    }
+
+    // tempDir receives the sorted runs; null means the system temp directory
+    public static long minTotalCost(int n, int[] modules, Path edgeFile, int chunkEdges, Path tempDir) throws IOException {
+        if (chunkEdges < 1 || chunkEdges > Integer.MAX_VALUE / RECORD_BYTES) {
+            throw new IllegalArgumentException("chunkEdges out of range: " + chunkEdges);
+        }
+
+        List<Path> runs = new ArrayList<>();
+        try (FileChannel input = FileChannel.open(edgeFile, StandardOpenOption.READ)) {
+            long size = input.size();
+            if (size % RECORD_BYTES != 0) {
+                throw new IllegalArgumentException(edgeFile + " is not a whole number of " + RECORD_BYTES + "-byte records");
+            }
+            long total = size / RECORD_BYTES;
+            int[] from = new int[(int) Math.min(total, chunkEdges)];
+            int[] to = new int[from.length], cost = new int[from.length];
+
+            // Step 1: A file that fits in one chunk never touches the disk again
+            if (total <= chunkEdges) {
+                readRecords(input, 0, from, to, cost, from.length);
+                return MinimumNetworkCost.minTotalCost(n, modules, from, to, cost);
+            }
+
+            // Step 2: Sorted runs, one per chunk
+            for (long first = 0; first < total; first += chunkEdges) {
+                int count = (int) Math.min(chunkEdges, total - first);
+                readRecords(input, first, from, to, cost, count);
+                int[] order = MinimumNetworkCost.sortByKey(cost, count);
+
+                Path run = tempDir == null ? Files.createTempFile("edges", ".run") : Files.createTempFile(tempDir, "edges", ".run");
+                runs.add(run);
+                try (FileChannel output = FileChannel.open(run, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    writeRecords(output, 0, from, to, cost, order, count);
+                }
+            }
+        }
+
+        try {
+            return mergeRuns(n, modules, runs);
+        } finally {
+            for (Path run : runs) {
+                // A mapping may keep the file open on some platforms
+                try {
+                    Files.deleteIfExists(run);
+                } catch (IOException e) {
+                    run.toFile().deleteOnExit();
+                }
+            }
+        }
+    }
+
+    // Step 3: Kruskal over the module edges and a k-way merge of the runs
+    private static long mergeRuns(int n, int[] modules, List<Path> runs) throws IOException {
+        int k = runs.size();
+        IntBuffer[] records = new IntBuffer[k];
+        int[] positions = new int[k];   // next record of each run
+        for (int r = 0; r < k; r++) {
+            try (FileChannel channel = FileChannel.open(runs.get(r), StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                records[r] = mapped.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            }
+        }
+
+        // Min-heap of run indices keyed by the cost of their next record
+        int[] heap = new int[k];
+        int heapSize = 0;
+        for (int r = 0; r < k; r++) heap[heapSize++] = r;
+        for (int i = heapSize / 2 - 1; i >= 0; i--) siftDown(heap, heapSize, i, records, positions);
+
+        int[] moduleOrder = MinimumNetworkCost.sortByKey(modules, n);
+        UnionFind uf = new UnionFind(n + 1);
+        long totalCost = 0;
+        int numEdges = 0, a = 0;
+
+        while (a < n || heapSize > 0) {
+            int run = heapSize > 0 ? heap[0] : -1;
+            boolean takeModule = run < 0 || (a < n && modules[moduleOrder[a]] <= headCost(records, positions, run));
+            int u, v, c;
+            if (takeModule) {
+                int device = moduleOrder[a++];
+                u = 0;
+                v = device + 1;
+                c = modules[device];
+            } else {
+                IntBuffer buffer = records[run];
+                int at = 3 * positions[run]++;
+                u = buffer.get(at);
+                v = buffer.get(at + 1);
+                c = buffer.get(at + 2);
+                if (3 * positions[run] == buffer.limit()) heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, 0, records, positions);
+            }
+
+            if (uf.union(u, v)) {
+                totalCost += c;
+                numEdges++;
+                if (numEdges == n) return totalCost;
+            }
+        }
+        return -1; // If not all devices are connected
+    }
+
+    private static int headCost(IntBuffer[] records, int[] positions, int run) {
+        return records[run].get(3 * positions[run] + 2);
+    }
+
+    private static void siftDown(int[] heap, int size, int i, IntBuffer[] records, int[] positions) {
+        while (true) {
+            int smallest = i, left = 2 * i + 1, right = left + 1;
+            if (left < size && headCost(records, positions, heap[left]) < headCost(records, positions, heap[smallest])) smallest = left;
+            if (right < size && headCost(records, positions, heap[right]) < headCost(records, positions, heap[smallest])) smallest = right;
+            if (smallest == i) return;
+            int t = heap[i]; heap[i] = heap[smallest]; heap[smallest] = t;
+            i = smallest;
+        }
+    }
+
+    private static void readRecords(FileChannel channel, long first, int[] from, int[] to, int[] cost, int count) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, first * RECORD_BYTES, (long) count * RECORD_BYTES);
+        IntBuffer records = mapped.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        for (int i = 0; i < count; i++) {
+            from[i] = records.get();
+            to[i] = records.get();
+            cost[i] = records.get();
+        }
+    }
+
+    // Writes count records at record index first: edges order[0..count) when an order
+    // is given, otherwise edges first..first+count in place
+    private static void writeRecords(FileChannel channel, long first, int[] from, int[] to, int[] cost, int[] order,
+                                     int count) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, first * RECORD_BYTES, (long) count * RECORD_BYTES);
+        IntBuffer records = mapped.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        for (int i = 0; i < count; i++) {
+            int e = order == null ? (int) first + i : order[i];
+            records.put(from[e]).put(to[e]).put(cost[e]);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("connections", ".bin");
+        try {
+            write(file, new int[]{1, 2}, new int[]{2, 3}, new int[]{1, 1});
+            System.out.println(minTotalCost(3, new int[]{1, 2, 2}, file)); // Output: 3
+            System.out.println(minTotalCost(3, new int[]{1, 2, 2}, file, 1, null)); // Output: 3
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
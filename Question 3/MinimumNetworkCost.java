@@ -1,78 +1,129 @@
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
-class UnionFind {
-    private int[] parent, rank;
-    
-    public UnionFind(int n) {
-        parent = new int[n];
-        rank = new int[n];
-        for (int i = 0; i < n; i++) {
-            parent[i] = i;
-            rank[i] = 0;
+public class MinimumNetworkCost {
+    public static long minTotalCost(int n, int[] modules, int[][] connections) {
+        int m = connections.length;
+        int[] from = new int[m], to = new int[m], cost = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = connections[i][0];
+            to[i] = connections[i][1];
+            cost[i] = connections[i][2];
         }
+        return minTotalCost(n, modules, from, to, cost);
     }
-    
-    public int find(int x) {
-        if (parent[x] != x) {
-            parent[x] = find(parent[x]);
-        }
-        return parent[x];
+
+    // Edges are given as parallel arrays: connection i joins from[i] and to[i] at cost[i].
+    // Device d (1-based) can also be served by its own module, modelled as an edge from
+    // virtual node 0 with cost modules[d - 1].
+    public static long minTotalCost(int n, int[] modules, int[] from, int[] to, int[] cost) {
+        return minTotalCost(n, modules, from, to, cost, new UnionFind(n + 1));
     }
-    
-    public boolean union(int x, int y) {
-        int rootX = find(x);
-        int rootY = find(y);
-        
-        if (rootX == rootY) return false;
-        
-        if (rank[rootX] > rank[rootY]) {
-            parent[rootY] = rootX;
-        } else if (rank[rootX] < rank[rootY]) {
-            parent[rootX] = rootY;
-        } else {
-            parent[rootY] = rootX;
-            rank[rootX]++;
+
+    // KRUSKAL is the sorted merge below; FILTER_KRUSKAL skips sorting heavy edges that
+    // are already redundant; PARALLEL_BORUVKA spreads the work over the common pool.
+    // All three return the same total, and -1 when some device stays unconnected.
+    //
+    // FILTER_KRUSKAL pays off on dense graphs (tens of connections per device or more),
+    // where it is several times faster; on sparse graphs the radix-sorted KRUSKAL wins.
+    // PARALLEL_BORUVKA is slower than both on a single core and only makes sense with
+    // several cores available to the common pool.
+    public enum Mode { KRUSKAL, FILTER_KRUSKAL, PARALLEL_BORUVKA }
+
+    public static long minTotalCost(int n, int[] modules, int[] from, int[] to, int[] cost, Mode mode) {
+        switch (mode) {
+            case FILTER_KRUSKAL:
+                return MstEngines.filterKruskal(n, modules, from, to, cost);
+            case PARALLEL_BORUVKA:
+                return MstEngines.parallelBoruvka(n, modules, from, to, cost, ForkJoinPool.commonPool());
+            default:
+                return minTotalCost(n, modules, from, to, cost);
         }
-        return true;
     }
-}
 
-public class MinimumNetworkCost {
-    public static int minTotalCost(int n, int[] modules, int[][] connections) {
-        List<int[]> edges = new ArrayList<>();
-        
-        // Step 1: Add virtual edges from node 0 to all devices with module cost
-        for (int i = 0; i < n; i++) {
-            edges.add(new int[]{0, i + 1, modules[i]});
-        }
-        
-        // Step 2: Add given connections
-        for (int[] conn : connections) {
-            edges.add(new int[]{conn[0], conn[1], conn[2]});
-        }
-        
-        // Step 3: Sort edges by cost
-        edges.sort(Comparator.comparingInt(a -> a[2]));
-        
-        // Step 4: Apply Kruskal's MST algorithm
-        UnionFind uf = new UnionFind(n + 1); // Including virtual node 0
-        int totalCost = 0, numEdges = 0;
-        
-        for (int[] edge : edges) {
-            if (uf.union(edge[0], edge[1])) {
-                totalCost += edge[2];
+    // Same, with a caller-chosen disjoint-set structure over nodes 0..n
+    public static long minTotalCost(int n, int[] modules, int[] from, int[] to, int[] cost, DisjointSet uf) {
+        // Step 1: Sort module edges and connections by cost separately; the module
+        // edges are never materialized, only their order
+        int[] moduleOrder = sortByKey(modules, n);
+        int[] edgeOrder = sortByKey(cost, cost.length);
+
+        // Step 2: Apply Kruskal's MST algorithm over the merge of both sorted streams,
+        // with virtual node 0 included in uf
+        long totalCost = 0;
+        int numEdges = 0;
+        int a = 0, b = 0;
+
+        while (a < n || b < edgeOrder.length) {
+            boolean takeModule = b == edgeOrder.length
+                    || (a < n && modules[moduleOrder[a]] <= cost[edgeOrder[b]]);
+            int u, v, c;
+            if (takeModule) {
+                int device = moduleOrder[a++];
+                u = 0;
+                v = device + 1;
+                c = modules[device];
+            } else {
+                int edge = edgeOrder[b++];
+                u = from[edge];
+                v = to[edge];
+                c = cost[edge];
+            }
+
+            if (uf.union(u, v)) {
+                totalCost += c;
                 numEdges++;
                 if (numEdges == n) return totalCost;
             }
         }
-        
+
         return -1; // If not all devices are connected
     }
+
+    // Indices 0..count-1 ordered by keys[i], by LSD radix sort over 11-bit digits.
+    // Keys are flipped at the sign bit so negative values order correctly, and a
+    // digit that is equal for every key (e.g. the high bits of small costs) is skipped.
+    static int[] sortByKey(int[] keys, int count) {
+        int[] order = new int[count], buffer = new int[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+
+        // One read of the keys builds the histograms for all three digits
+        int[][] histograms = new int[3][1 << 11];
+        for (int i = 0; i < count; i++) {
+            int key = keys[i] ^ Integer.MIN_VALUE;
+            histograms[0][key & 0x7FF]++;
+            histograms[1][(key >>> 11) & 0x7FF]++;
+            histograms[2][key >>> 22]++;
+        }
+
+        for (int digit = 0; digit < 3; digit++) {
+            int shift = 11 * digit;
+            int[] histogram = histograms[digit];
+            if (count == 0 || histogram[((keys[0] ^ Integer.MIN_VALUE) >>> shift) & 0x7FF] == count) continue;
+
+            for (int d = 0, sum = 0; d < histogram.length; d++) {
+                int c = histogram[d];
+                histogram[d] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < count; i++) {
+                int index = order[i];
+                buffer[histogram[((keys[index] ^ Integer.MIN_VALUE) >>> shift) & 0x7FF]++] = index;
+            }
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+        return order;
+    }
     
     public static void main(String[] args) {
         int n = 3;
         int[] modules = {1, 2, 2};
         int[][] connections = {{1, 2, 1}, {2, 3, 1}};
         System.out.println(minTotalCost(n, modules, connections)); // Output: 3
+
+        int[] from = {1, 2}, to = {2, 3}, cost = {1, 1};
+        System.out.println(minTotalCost(n, modules, from, to, cost, Mode.PARALLEL_BORUVKA)); // Output: 3
     }
 }
\ No newline at end of file
@@ -0,0 +1,223 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class MinimumNetworkCostBenchmark {
+    // Original boxed edge-list path, kept here as the baseline being compared against
+    private static int minTotalCostBoxed(int n, int[] modules, int[][] connections) {
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < n; i++) edges.add(new int[]{0, i + 1, modules[i]});
+        for (int[] conn : connections) edges.add(new int[]{conn[0], conn[1], conn[2]});
+        edges.sort(Comparator.comparingInt(a -> a[2]));
+
+        UnionFind uf = new UnionFind(n + 1);
+        int totalCost = 0, numEdges = 0;
+        for (int[] edge : edges) {
+            if (uf.union(edge[0], edge[1])) {
+                totalCost += edge[2];
+                numEdges++;
+                if (numEdges == n) return totalCost;
+            }
+        }
+        return -1;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(42);
+
+        // Cross-check on small random graphs, including disconnected ones and no devices
+        for (int round = 0; round < 2_000; round++) {
+            int n = random.nextInt(31);
+            int m = n == 0 ? 0 : random.nextInt(60);
+            int[] modules = new int[n];
+            for (int i = 0; i < n; i++) modules[i] = random.nextInt(100);
+            int[][] connections = new int[m][];
+            for (int i = 0; i < m; i++) {
+                connections[i] = new int[]{1 + random.nextInt(n), 1 + random.nextInt(n), random.nextInt(100)};
+            }
+            long expected = minTotalCostBoxed(n, modules, connections);
+            if (expected != MinimumNetworkCost.minTotalCost(n, modules, connections)) {
+                throw new AssertionError("Mismatch in round " + round);
+            }
+            int[] from = new int[m], to = new int[m], cost = new int[m];
+            for (int i = 0; i < m; i++) {
+                from[i] = connections[i][0];
+                to[i] = connections[i][1];
+                cost[i] = connections[i][2];
+            }
+            if (expected != MinimumNetworkCost.minTotalCost(n, modules, from, to, cost, new ConcurrentUnionFind(n + 1))) {
+                throw new AssertionError("ConcurrentUnionFind mismatch in round " + round);
+            }
+            for (MinimumNetworkCost.Mode mode : MinimumNetworkCost.Mode.values()) {
+                if (expected != MinimumNetworkCost.minTotalCost(n, modules, from, to, cost, mode)) {
+                    throw new AssertionError(mode + " mismatch in round " + round);
+                }
+            }
+        }
+
+        // Larger graphs so Filter-Kruskal partitions and Borůvka runs several chunks;
+        // a narrow cost range gives many ties
+        for (int round = 0; round < 20; round++) {
+            int n = 1 + random.nextInt(100_000);
+            int m = random.nextInt(300_000);
+            int range = round % 2 == 0 ? 5 : 1_000; // keeps the boxed int total from overflowing
+            int[] modules = new int[n];
+            for (int i = 0; i < n; i++) modules[i] = random.nextInt(range) + (round % 4 == 1 ? 10 * range : 0);
+            int[][] connections = new int[m][];
+            int[] from = new int[m], to = new int[m], cost = new int[m];
+            for (int i = 0; i < m; i++) {
+                from[i] = 1 + random.nextInt(n);
+                to[i] = 1 + random.nextInt(n);
+                cost[i] = random.nextInt(range);
+                connections[i] = new int[]{from[i], to[i], cost[i]};
+            }
+            long expected = minTotalCostBoxed(n, modules, connections);
+            for (MinimumNetworkCost.Mode mode : MinimumNetworkCost.Mode.values()) {
+                if (expected != MinimumNetworkCost.minTotalCost(n, modules, from, to, cost, mode)) {
+                    throw new AssertionError(mode + " mismatch in large round " + round);
+                }
+            }
+        }
+
+        // The tracker must match a full recomputation after every single connection
+        for (int round = 0; round < 300; round++) {
+            int n = 1 + random.nextInt(40);
+            int m = random.nextInt(120);
+            int[] modules = new int[n];
+            for (int i = 0; i < n; i++) modules[i] = random.nextInt(100);
+            NetworkCostTracker tracker = new NetworkCostTracker(modules);
+            int[][] connections = new int[m][];
+            for (int i = 0; i < m; i++) {
+                connections[i] = new int[]{1 + random.nextInt(n), 1 + random.nextInt(n), random.nextInt(100)};
+                tracker.addConnection(connections[i][0], connections[i][1], connections[i][2]);
+                long expected = MinimumNetworkCost.minTotalCost(n, modules, Arrays.copyOf(connections, i + 1));
+                if (expected != tracker.currentCost()) throw new AssertionError("Tracker mismatch in round " + round);
+            }
+        }
+
+        // Edge files, both solved in memory and through several sorted runs
+        Path edgeFile = Files.createTempFile("connections", ".bin");
+        try {
+            for (int round = 0; round < 50; round++) {
+                int n = 1 + random.nextInt(2_000);
+                int m = random.nextInt(10_000);
+                int[] modules = new int[n];
+                for (int i = 0; i < n; i++) modules[i] = random.nextInt(1_000);
+                int[] from = new int[m], to = new int[m], cost = new int[m];
+                for (int i = 0; i < m; i++) {
+                    from[i] = 1 + random.nextInt(n);
+                    to[i] = 1 + random.nextInt(n);
+                    cost[i] = random.nextInt(1_000);
+                }
+                EdgeFile.write(edgeFile, from, to, cost);
+                long expected = MinimumNetworkCost.minTotalCost(n, modules, from, to, cost);
+                if (expected != EdgeFile.minTotalCost(n, modules, edgeFile)
+                        || expected != EdgeFile.minTotalCost(n, modules, edgeFile, 1 + random.nextInt(3_000), null)) {
+                    throw new AssertionError("Edge file mismatch in round " + round);
+                }
+            }
+        } finally {
+            Files.delete(edgeFile);
+        }
+        System.out.println("validation passed");
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        int[] modules = new int[n];
+        for (int i = 0; i < n; i++) modules[i] = 1_000 + random.nextInt(1_000);
+        int[] from = new int[m], to = new int[m], cost = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = 1 + random.nextInt(n);
+            to[i] = 1 + random.nextInt(n);
+            cost[i] = random.nextInt(1_000);
+        }
+        int[][] connections = new int[m][];
+        for (int i = 0; i < m; i++) connections[i] = new int[]{from[i], to[i], cost[i]};
+
+        // Online insertion of a prefix of the connections versus one batch computation
+        int online = Math.min(m, 1_000_000);
+        long start = System.nanoTime();
+        NetworkCostTracker tracker = new NetworkCostTracker(modules);
+        for (int i = 0; i < online; i++) tracker.addConnection(from[i], to[i], cost[i]);
+        long trackerNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        long batch = MinimumNetworkCost.minTotalCost(n, modules, Arrays.copyOf(from, online),
+                Arrays.copyOf(to, online), Arrays.copyOf(cost, online));
+        long batchNanos = System.nanoTime() - start;
+        if (tracker.currentCost() != batch) throw new AssertionError("Tracker total differs");
+        System.out.printf("n=%d, %d connections: online %6.0f ns per connection, one batch recompute %8.2f ms%n",
+                n, online, (double) trackerNanos / online, batchNanos / 1e6);
+
+        for (int run = 0; run < 3; run++) {
+            long bytes = allocatedBytes();
+            start = System.nanoTime();
+            long boxed = minTotalCostBoxed(n, modules, connections);
+            long boxedNanos = System.nanoTime() - start;
+            long boxedBytes = allocatedBytes() - bytes;
+
+            bytes = allocatedBytes();
+            start = System.nanoTime();
+            long packed = MinimumNetworkCost.minTotalCost(n, modules, from, to, cost);
+            long packedNanos = System.nanoTime() - start;
+            long packedBytes = allocatedBytes() - bytes;
+
+            if (boxed != packed) throw new AssertionError("Totals differ: " + boxed + " vs " + packed);
+            System.out.printf("n=%d m=%d boxed %8.2f ms / %6d MB, struct-of-arrays %8.2f ms / %6d MB%n",
+                    n, m, boxedNanos / 1e6, boxedBytes >> 20, packedNanos / 1e6, packedBytes >> 20);
+
+            for (MinimumNetworkCost.Mode mode : MinimumNetworkCost.Mode.values()) {
+                start = System.nanoTime();
+                long total = MinimumNetworkCost.minTotalCost(n, modules, from, to, cost, mode);
+                long nanos = System.nanoTime() - start;
+                if (total != packed) throw new AssertionError(mode + " total differs: " + total + " vs " + packed);
+                System.out.printf("    %-16s %8.2f ms%n", mode, nanos / 1e6);
+            }
+        }
+
+        // The same graph from a binary edge dump, in one chunk and as external runs
+        Path dump = Files.createTempFile("connections", ".bin");
+        try {
+            EdgeFile.write(dump, from, to, cost);
+            long expected = MinimumNetworkCost.minTotalCost(n, modules, from, to, cost);
+            for (int chunk : new int[]{m, 1 << 20}) {
+                long bytes = allocatedBytes();
+                start = System.nanoTime();
+                long total = EdgeFile.minTotalCost(n, modules, dump, Math.max(1, chunk), null);
+                long nanos = System.nanoTime() - start;
+                long heapBytes = allocatedBytes() - bytes;
+                if (total != expected) throw new AssertionError("Edge file total differs: " + total + " vs " + expected);
+                System.out.printf("edge file, chunks of %d: %8.2f ms / %6d MB allocated%n", chunk, nanos / 1e6, heapBytes >> 20);
+            }
+        } finally {
+            Files.delete(dump);
+        }
+
+        // A dense graph, where Filter-Kruskal filters most heavy edges instead of sorting them
+        int denseN = 20_000, denseM = 8_000_000;
+        int[] denseModules = new int[denseN];
+        for (int i = 0; i < denseN; i++) denseModules[i] = 1_000_000_000 + random.nextInt(100);
+        int[] denseFrom = new int[denseM], denseTo = new int[denseM], denseCost = new int[denseM];
+        for (int i = 0; i < denseM; i++) {
+            denseFrom[i] = 1 + random.nextInt(denseN);
+            denseTo[i] = 1 + random.nextInt(denseN);
+            denseCost[i] = random.nextInt(1_000_000_000);
+        }
+        for (int run = 0; run < 3; run++) {
+            System.out.printf("n=%d m=%d (dense)%n", denseN, denseM);
+            long expected = MinimumNetworkCost.minTotalCost(denseN, denseModules, denseFrom, denseTo, denseCost);
+            for (MinimumNetworkCost.Mode mode : MinimumNetworkCost.Mode.values()) {
+                start = System.nanoTime();
+                long total = MinimumNetworkCost.minTotalCost(denseN, denseModules, denseFrom, denseTo, denseCost, mode);
+                long nanos = System.nanoTime() - start;
+                if (total != expected) throw new AssertionError(mode + " dense total differs: " + total + " vs " + expected);
+                System.out.printf("    %-16s %8.2f ms%n", mode, nanos / 1e6);
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Alternative MST engines behind MinimumNetworkCost.Mode. Both see the same graph as
+// the Kruskal path: nodes 0..n with virtual node 0, edge ids 0..n-1 for the module
+// edges (0, d + 1, modules[d]) followed by one id per connection.
+final class MstEngines {
+    private MstEngines() {}
+
+    // The Kruskal path only returns a total after merging n edges, so it reports -1
+    // when there are no devices; the engines return the same so Mode never changes results
+    private static final long NO_DEVICES = -1;
+
+    // Read-only view of the combined edge ids; nothing is copied
+    private static final class Edges {
+        final int n;
+        final int[] modules, from, to, cost;
+
+        Edges(int n, int[] modules, int[] from, int[] to, int[] cost) {
+            this.n = n;
+            this.modules = modules;
+            this.from = from;
+            this.to = to;
+            this.cost = cost;
+        }
+
+        int size() {
+            return n + cost.length;
+        }
+
+        int u(int e) {
+            return e < n ? 0 : from[e - n];
+        }
+
+        int v(int e) {
+            return e < n ? e + 1 : to[e - n];
+        }
+
+        int cost(int e) {
+            return e < n ? modules[e] : cost[e - n];
+        }
+    }
+
+    // ---------------------------------------------------------------- Filter-Kruskal
+
+    // Below this many edges a range is simply sorted and scanned
+    private static final int FILTER_BASE = 1 << 12;
+
+    // Quicksort-style Kruskal: split the edges around a sampled pivot cost, solve the
+    // lighter part, then drop every heavier edge whose ends are already connected
+    // before recursing into it. On dense inputs most heavy edges are filtered out
+    // without ever being sorted.
+    static long filterKruskal(int n, int[] modules, int[] from, int[] to, int[] cost) {
+        if (n == 0) return NO_DEVICES;
+        FilterKruskal solver = new FilterKruskal(new Edges(n, modules, from, to, cost));
+        return solver.run();
+    }
+
+    private static final class FilterKruskal {
+        private final Edges edges;
+        private final UnionFind uf;
+        private final SplittableRandom random = new SplittableRandom(1);
+        private long total;
+        private int merged;
+
+        FilterKruskal(Edges edges) {
+            this.edges = edges;
+            this.uf = new UnionFind(edges.n + 1);
+        }
+
+        long run() {
+            int[] ids = new int[edges.size()];
+            for (int e = 0; e < ids.length; e++) ids[e] = e;
+            solve(ids, 0, ids.length);
+            return merged == edges.n ? total : -1;
+        }
+
+        private void solve(int[] ids, int lo, int hi) {
+            if (merged == edges.n || lo >= hi) return;
+            if (hi - lo <= FILTER_BASE) {
+                kruskal(ids, lo, hi);
+                return;
+            }
+
+            // Three-way partition: [lo, lt) < pivot, [lt, gt) == pivot, [gt, hi) > pivot.
+            // The middle block keeps all-equal costs from recursing forever.
+            int pivot = edges.cost(ids[lo + random.nextInt(hi - lo)]);
+            int lt = lo, gt = hi;
+            for (int i = lo; i < gt; ) {
+                int c = edges.cost(ids[i]);
+                if (c < pivot) {
+                    swap(ids, lt++, i++);
+                } else if (c > pivot) {
+                    swap(ids, i, --gt);
+                } else {
+                    i++;
+                }
+            }
+
+            solve(ids, lo, lt);
+            for (int i = lt; i < gt && merged < edges.n; i++) link(ids[i]);
+            solve(ids, gt, filter(ids, gt, hi));
+        }
+
+        // Keeps only edges between different components, returning the new end
+        private int filter(int[] ids, int lo, int hi) {
+            int end = lo;
+            for (int i = lo; i < hi; i++) {
+                int e = ids[i];
+                if (uf.find(edges.u(e)) != uf.find(edges.v(e))) ids[end++] = e;
+            }
+            return end;
+        }
+
+        private void kruskal(int[] ids, int lo, int hi) {
+            // Cost in the high half, id in the low half: one primitive sort orders both
+            long[] keys = new long[hi - lo];
+            for (int i = lo; i < hi; i++) keys[i - lo] = (long) edges.cost(ids[i]) << 32 | ids[i];
+            Arrays.sort(keys);
+            for (int i = 0; i < keys.length && merged < edges.n; i++) link((int) keys[i]);
+        }
+
+        private void link(int e) {
+            if (uf.union(edges.u(e), edges.v(e))) {
+                total += edges.cost(e);
+                merged++;
+            }
+        }
+
+        private static void swap(int[] a, int i, int j) {
+            int t = a[i]; a[i] = a[j]; a[j] = t;
+        }
+    }
+
+    // ---------------------------------------------------------------- Parallel Borůvka
+
+    // Active edges per scan task
+    private static final int CHUNK = 1 << 16;
+    private static final long NONE = Long.MAX_VALUE;
+
+    // Every round, each component picks its cheapest outgoing edge and all picks are
+    // linked at once, so at least half the components disappear per round. Both
+    // phases run on the pool: the edge scan is split into chunks, the linking is
+    // split over the nodes and done through the lock-free ConcurrentUnionFind.
+    // Ties are broken by edge id, which keeps the picked edges acyclic; the total is
+    // the same as Kruskal's because every MST of a graph has the same weight.
+    static long parallelBoruvka(int n, int[] modules, int[] from, int[] to, int[] cost, ForkJoinPool pool) {
+        if (n == 0) return NO_DEVICES;
+        Edges edges = new Edges(n, modules, from, to, cost);
+        ConcurrentUnionFind uf = new ConcurrentUnionFind(n + 1);
+        // Cheapest outgoing edge per component root, packed as (cost << 32 | edge id)
+        AtomicLongArray cheapest = new AtomicLongArray(n + 1);
+        for (int i = 0; i <= n; i++) cheapest.set(i, NONE);
+
+        int[] active = new int[edges.size()];
+        for (int e = 0; e < active.length; e++) active[e] = e;
+        int activeCount = active.length;
+        LongAdder total = new LongAdder(), merged = new LongAdder();
+
+        while (merged.sum() < n) {
+            // Step 1: Drop edges inside a component and propose the rest; each chunk
+            // compacts its survivors to its own front
+            int chunks = (activeCount + CHUNK - 1) / CHUNK;
+            int[] kept = new int[chunks];
+            pool.invoke(new ScanTask(edges, uf, cheapest, active, activeCount, kept, 0, chunks));
+
+            int count = 0;
+            for (int c = 0; c < chunks; c++) {
+                System.arraycopy(active, c * CHUNK, active, count, kept[c]);
+                count += kept[c];
+            }
+            activeCount = count;
+            if (activeCount == 0) break; // No edge leaves any component: disconnected
+
+            // Step 2: Link every component along its cheapest edge
+            pool.invoke(new LinkTask(edges, uf, cheapest, total, merged, 0, n + 1));
+        }
+        return merged.sum() == n ? total.sum() : -1;
+    }
+
+    private static final class ScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Edges edges;
+        private final ConcurrentUnionFind uf;
+        private final AtomicLongArray cheapest;
+        private final int[] active, kept;
+        private final int activeCount, from, to;
+
+        ScanTask(Edges edges, ConcurrentUnionFind uf, AtomicLongArray cheapest, int[] active, int activeCount,
+                 int[] kept, int from, int to) {
+            this.edges = edges;
+            this.uf = uf;
+            this.cheapest = cheapest;
+            this.active = active;
+            this.activeCount = activeCount;
+            this.kept = kept;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ScanTask(edges, uf, cheapest, active, activeCount, kept, from, mid),
+                          new ScanTask(edges, uf, cheapest, active, activeCount, kept, mid, to));
+                return;
+            }
+
+            int start = from * CHUNK, end = Math.min(activeCount, start + CHUNK), count = 0;
+            for (int i = start; i < end; i++) {
+                int e = active[i];
+                int rootU = uf.find(edges.u(e)), rootV = uf.find(edges.v(e));
+                if (rootU == rootV) continue;
+                active[start + count++] = e;
+                long key = (long) edges.cost(e) << 32 | e;
+                propose(rootU, key);
+                propose(rootV, key);
+            }
+            kept[from] = count;
+        }
+
+        private void propose(int root, long key) {
+            long current;
+            while (key < (current = cheapest.get(root)) && !cheapest.compareAndSet(root, current, key)) {
+                // Lost to a concurrent proposal; retry against the new value
+            }
+        }
+    }
+
+    private static final class LinkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Edges edges;
+        private final ConcurrentUnionFind uf;
+        private final AtomicLongArray cheapest;
+        private final LongAdder total, merged;
+        private final int from, to;
+
+        LinkTask(Edges edges, ConcurrentUnionFind uf, AtomicLongArray cheapest, LongAdder total, LongAdder merged,
+                 int from, int to) {
+            this.edges = edges;
+            this.uf = uf;
+            this.cheapest = cheapest;
+            this.total = total;
+            this.merged = merged;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new LinkTask(edges, uf, cheapest, total, merged, from, mid),
+                          new LinkTask(edges, uf, cheapest, total, merged, mid, to));
+                return;
+            }
+
+            long sum = 0;
+            int links = 0;
+            for (int root = from; root < to; root++) {
+                long key = cheapest.get(root);
+                if (key == NONE) continue;
+                cheapest.set(root, NONE);
+                // The same edge may be picked from both sides; only one union succeeds
+                int e = (int) key;
+                if (uf.union(edges.u(e), edges.v(e))) {
+                    sum += edges.cost(e);
+                    links++;
+                }
+            }
+            total.add(sum);
+            merged.add(links);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+// Keeps the minimum network cost up to date while connections arrive one at a time.
+//
+// The MST of the graph with virtual node 0 starts as the star of module edges and
+// is stored in a link-cut tree. A new connection (u, v, cost) closes a cycle with
+// the tree path from u to v; if it is cheaper than the most expensive edge on that
+// path, that edge is cut and the new one linked in its place. Every update is a
+// constant number of link-cut operations, O(log n) amortized.
+//
+// Tree edges are link-cut nodes of their own, so path maxima are plain node maxima.
+// Node ids: 0 is the null sentinel, 1..n+1 are the graph nodes 0..n, and the n edge
+// slots follow. The tree always has exactly n edges, so a cut edge's slot is reused
+// by the edge replacing it.
+public class NetworkCostTracker {
+    private final int n;
+    private final int[] left, right, parent;
+    private final boolean[] flip;
+    private final int[] weight;   // edge cost for edge slots, MIN_VALUE for graph nodes
+    private final int[] best;     // node of maximum weight in the splay subtree
+    private final int[] edgeU, edgeV;
+    private final int[] stack;
+    private long total;
+
+    public NetworkCostTracker(int[] modules) {
+        n = modules.length;
+        int size = 2 * n + 2;
+        left = new int[size];
+        right = new int[size];
+        parent = new int[size];
+        flip = new boolean[size];
+        weight = new int[size];
+        best = new int[size];
+        edgeU = new int[size];
+        edgeV = new int[size];
+        stack = new int[size];
+
+        for (int x = 0; x < size; x++) {
+            weight[x] = Integer.MIN_VALUE;
+            best[x] = x;
+        }
+        // Module edge of device d hangs under node 0 and above device d
+        for (int d = 1; d <= n; d++) {
+            int slot = n + 1 + d;
+            weight[slot] = modules[d - 1];
+            edgeU[slot] = 0;
+            edgeV[slot] = d;
+            parent[slot] = node(0);
+            parent[node(d)] = slot;
+            total += modules[d - 1];
+        }
+    }
+
+    // Devices are 1-based, as in the connections of MinimumNetworkCost
+    public void addConnection(int u, int v, int cost) {
+        if (u < 1 || u > n || v < 1 || v > n) throw new IllegalArgumentException("Device out of range: " + u + ", " + v);
+        if (u == v) return;
+
+        // Step 1: Most expensive edge on the current tree path between u and v
+        makeRoot(node(u));
+        access(node(v));
+        int slot = best[node(v)];
+        if (cost >= weight[slot]) return;
+
+        // Step 2: Swap it for the new connection, reusing its slot
+        cut(slot, node(edgeU[slot]));
+        cut(slot, node(edgeV[slot]));
+        total += (long) cost - weight[slot];
+        weight[slot] = cost;
+        best[slot] = slot;
+        flip[slot] = false;
+        edgeU[slot] = u;
+        edgeV[slot] = v;
+        link(slot, node(u));
+        link(slot, node(v));
+    }
+
+    public long currentCost() {
+        return total;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    private static int node(int device) {
+        return device + 1;
+    }
+
+    private boolean isRoot(int x) {
+        int p = parent[x];
+        return p == 0 || (left[p] != x && right[p] != x);
+    }
+
+    private void pushUp(int x) {
+        int b = x;
+        if (weight[best[left[x]]] > weight[b]) b = best[left[x]];
+        if (weight[best[right[x]]] > weight[b]) b = best[right[x]];
+        best[x] = b;
+    }
+
+    private void pushDown(int x) {
+        if (!flip[x]) return;
+        flip[x] = false;
+        reverse(left[x]);
+        reverse(right[x]);
+    }
+
+    private void reverse(int x) {
+        if (x == 0) return;
+        int t = left[x]; left[x] = right[x]; right[x] = t;
+        flip[x] ^= true;
+    }
+
+    private void rotate(int x) {
+        int p = parent[x], g = parent[p];
+        if (!isRoot(p)) {
+            if (left[g] == p) left[g] = x; else right[g] = x;
+        }
+        parent[x] = g;
+        if (left[p] == x) {
+            left[p] = right[x];
+            if (right[x] != 0) parent[right[x]] = p;
+            right[x] = p;
+        } else {
+            right[p] = left[x];
+            if (left[x] != 0) parent[left[x]] = p;
+            left[x] = p;
+        }
+        parent[p] = x;
+        pushUp(p);
+        pushUp(x);
+    }
+
+    private void splay(int x) {
+        // Pending reversals are pushed from the splay root down to x first
+        int top = 0;
+        stack[top++] = x;
+        for (int y = x; !isRoot(y); y = parent[y]) stack[top++] = parent[y];
+        while (top > 0) pushDown(stack[--top]);
+
+        while (!isRoot(x)) {
+            int p = parent[x], g = parent[p];
+            if (!isRoot(p)) rotate((left[g] == p) == (left[p] == x) ? p : x);
+            rotate(x);
+        }
+    }
+
+    // Makes the root-to-x path preferred, leaving x at the root of its splay tree
+    private void access(int x) {
+        for (int last = 0, y = x; y != 0; last = y, y = parent[y]) {
+            splay(y);
+            right[y] = last;
+            pushUp(y);
+        }
+        splay(x);
+    }
+
+    private void makeRoot(int x) {
+        access(x);
+        reverse(x);
+    }
+
+    private void link(int x, int y) {
+        makeRoot(x);
+        parent[x] = y;
+    }
+
+    // x and y must be adjacent in the tree
+    private void cut(int x, int y) {
+        makeRoot(x);
+        access(y);
+        left[y] = 0;
+        parent[x] = 0;
+        pushUp(y);
+    }
+
+    public static void main(String[] args) {
+        NetworkCostTracker tracker = new NetworkCostTracker(new int[]{1, 2, 2});
+        System.out.println(tracker.currentCost()); // Output: 5
+
+        tracker.addConnection(1, 2, 1);
+        System.out.println(tracker.currentCost()); // Output: 4
+
+        tracker.addConnection(2, 3, 1);
+        System.out.println(tracker.currentCost()); // Output: 3
+    }
+}
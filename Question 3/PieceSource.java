@@ -0,0 +1,38 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.function.IntSupplier;
+
+// Supplies the sequence of pieces (0..TetrisEngine.PIECES-1) for one game. Seeded
+// sources give the same sequence on every run, and each game owns its source, so
+// nothing is shared between threads.
+public interface PieceSource extends IntSupplier {
+    // Every piece independently and uniformly at random
+    static PieceSource uniform(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return () -> random.nextInt(TetrisEngine.PIECES);
+    }
+
+    // All seven pieces in a shuffled order, then the next shuffled seven, and so on
+    static PieceSource sevenBag(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] bag = new int[TetrisEngine.PIECES];
+        int[] next = {bag.length};
+        return () -> {
+            if (next[0] == bag.length) {
+                for (int i = 0; i < bag.length; i++) {
+                    int j = random.nextInt(i + 1);
+                    bag[i] = bag[j];
+                    bag[j] = i;
+                }
+                next[0] = 0;
+            }
+            return bag[next[0]++];
+        };
+    }
+
+    // The pieces of a game recorded by TetrisRecorder, in the order they spawned
+    static PieceSource replay(Path log) throws IOException {
+        return TetrisRecorder.pieces(TetrisRecorder.read(log));
+    }
+}
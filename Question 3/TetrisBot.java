@@ -0,0 +1,106 @@
+// Greedy placement bot: tries every distinct rotation at every column, hard-drops
+// the piece on a scratch copy of the row masks and keeps the placement whose
+// resulting board scores best. The scorer is a weighted sum of four features:
+// aggregate column height, lines cleared, holes (empty cells under a filled one)
+// and bumpiness (height differences between neighbouring columns).
+public class TetrisBot {
+    private static final int WIDTH = TetrisEngine.WIDTH;
+    private static final int HEIGHT = TetrisEngine.HEIGHT;
+    private static final int FULL_ROW = (1 << WIDTH) - 1;
+
+    private final double heightWeight, linesWeight, holesWeight, bumpinessWeight;
+
+    // Scratch state reused for every candidate; one bot per thread
+    private final int[] board = new int[HEIGHT];
+    private final int[] heights = new int[WIDTH];
+
+    // Weights found by a genetic search over these four features
+    public TetrisBot() {
+        this(-0.510066, 0.760666, -0.35663, -0.184483);
+    }
+
+    public TetrisBot(double heightWeight, double linesWeight, double holesWeight, double bumpinessWeight) {
+        this.heightWeight = heightWeight;
+        this.linesWeight = linesWeight;
+        this.holesWeight = holesWeight;
+        this.bumpinessWeight = bumpinessWeight;
+    }
+
+    // Places the current piece at the best position; returns false once the game is over
+    public boolean move(TetrisEngine engine) {
+        if (engine.isGameOver()) return false;
+        int best = choose(engine);
+        engine.place(best / WIDTH, best % WIDTH);
+        return !engine.isGameOver();
+    }
+
+    // Best placement for the current piece as rotation * WIDTH + column
+    public int choose(TetrisEngine engine) {
+        int piece = engine.piece(), startY = engine.pieceY();
+
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int bestRotation = -1, bestX = -1;
+        for (int rotation = 0; rotation < TetrisEngine.distinctRotations(piece); rotation++) {
+            int[] shape = TetrisEngine.shape(piece, rotation);
+            for (int x = 0; x + TetrisEngine.shapeWidth(piece, rotation) <= WIDTH; x++) {
+                if (!engine.fits(piece, rotation, x, startY)) continue;
+                int y = startY;
+                while (engine.fits(piece, rotation, x, y + 1)) y++;
+
+                double score = evaluate(engine, shape, x, y);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestRotation = rotation;
+                    bestX = x;
+                }
+            }
+        }
+        // The spawn position always fits, so some placement was found
+        return bestRotation * WIDTH + bestX;
+    }
+
+    private double evaluate(TetrisEngine engine, int[] shape, int pieceX, int pieceY) {
+        // Settle the piece and drop full rows, compacting towards the bottom
+        int lines = 0, write = HEIGHT - 1;
+        for (int y = HEIGHT - 1; y >= 0; y--) {
+            int row = engine.row(y);
+            int i = y - pieceY;
+            if (i >= 0 && i < shape.length) row |= shape[i] << pieceX;
+            if (row == FULL_ROW) {
+                lines++;
+            } else {
+                board[write--] = row;
+            }
+        }
+        for (int y = write; y >= 0; y--) board[y] = 0;
+
+        // Top down: a column's height is fixed by its first filled cell, and every
+        // empty cell under an already-filled column is a hole
+        int covered = 0, holes = 0;
+        for (int y = lines; y < HEIGHT; y++) {
+            int row = board[y];
+            int fresh = row & ~covered;
+            while (fresh != 0) {
+                heights[Integer.numberOfTrailingZeros(fresh)] = HEIGHT - y;
+                fresh &= fresh - 1;
+            }
+            covered |= row;
+            holes += Integer.bitCount(covered & ~row);
+        }
+        int aggregate = 0, bumpiness = 0;
+        for (int x = 0; x < WIDTH; x++) {
+            if ((covered >> x & 1) == 0) heights[x] = 0;
+            aggregate += heights[x];
+            if (x > 0) bumpiness += Math.abs(heights[x] - heights[x - 1]);
+        }
+        return heightWeight * aggregate + linesWeight * lines + holesWeight * holes + bumpinessWeight * bumpiness;
+    }
+
+    public static void main(String[] args) {
+        // With only I pieces a perfect stack clears one line per 2.5 pieces
+        TetrisEngine engine = new TetrisEngine(() -> 0);
+        TetrisBot bot = new TetrisBot();
+        for (int pieces = 0; pieces < 100 && bot.move(engine); pieces++);
+        System.out.println(engine.isGameOver() + " " + engine.linesCleared()); // Output: false 40
+    }
+}
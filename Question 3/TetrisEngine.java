@@ -0,0 +1,278 @@
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntSupplier;
+
+// Tetris rules without any AWT dependency, so the same core drives the Swing panel
+// and headless runs.
+//
+// Each board row is a 10-bit mask (bit x = column x), with the piece colours packed
+// 3 bits per cell into a parallel int per row. A piece in one orientation is up to
+// four row masks; it collides when any of them, shifted to the piece's column,
+// ANDs with the board row below it. All four orientations of every piece are
+// precomputed once, so rotating is an index change.
+public class TetrisEngine {
+    public static final int WIDTH = 10;
+    public static final int HEIGHT = 20;
+    public static final int PIECES = 7;
+
+    private static final int FULL_ROW = (1 << WIDTH) - 1;
+    private static final int COLOR_BITS = 3;
+
+    private static final int[][][] TETROMINOES = {
+        {{1,1,1,1}},           // I
+        {{1,1}, {1,1}},        // O
+        {{1,1,1}, {0,1,0}},    // T
+        {{1,1,1}, {1,0,0}},    // L
+        {{1,1,1}, {0,0,1}},    // J
+        {{0,1,1}, {1,1,0}},    // S
+        {{1,1,0}, {0,1,1}}     // Z
+    };
+
+    // SHAPES[piece][rotation] = row masks from the top; each rotation is the previous
+    // one turned clockwise about its top-left corner
+    private static final int[][][] SHAPES = new int[PIECES][4][];
+    private static final int[][] SHAPE_WIDTHS = new int[PIECES][4];
+    private static final int[] DISTINCT_ROTATIONS = new int[PIECES];
+
+    static {
+        for (int piece = 0; piece < PIECES; piece++) {
+            int[][] shape = TETROMINOES[piece];
+            for (int rotation = 0; rotation < 4; rotation++) {
+                int[] masks = new int[shape.length];
+                for (int i = 0; i < shape.length; i++) {
+                    for (int j = 0; j < shape[i].length; j++) masks[i] |= shape[i][j] << j;
+                }
+                SHAPES[piece][rotation] = masks;
+                SHAPE_WIDTHS[piece][rotation] = shape[0].length;
+
+                int[][] rotated = new int[shape[0].length][shape.length];
+                for (int i = 0; i < shape.length; i++) {
+                    for (int j = 0; j < shape[i].length; j++) rotated[j][shape.length - 1 - i] = shape[i][j];
+                }
+                shape = rotated;
+            }
+            // The orientations repeat with period 1, 2 or 4
+            int period = 4;
+            while (period > 1 && Arrays.equals(SHAPES[piece][0], SHAPES[piece][period / 2])) period /= 2;
+            DISTINCT_ROTATIONS[piece] = period;
+        }
+    }
+
+    private final int[] rows = new int[HEIGHT];
+    private final int[] colors = new int[HEIGHT];
+    private final IntSupplier nextPiece;
+
+    private int piece, rotation, pieceX, pieceY;
+    private boolean gameOver;
+    private int score;
+    private long lines;
+    private long version;   // bumped whenever the settled cells change
+
+    // Player inputs plus the gravity tick, in the order of their log codes
+    public enum Action { LEFT, RIGHT, ROTATE, DROP, STEP }
+
+    // Uniformly random pieces from a fresh seed
+    public TetrisEngine() {
+        this(PieceSource.uniform(ThreadLocalRandom.current().nextLong()));
+    }
+
+    // nextPiece supplies piece indices 0..PIECES-1
+    public TetrisEngine(IntSupplier nextPiece) {
+        this.nextPiece = nextPiece;
+        newGame();
+    }
+
+    public void newGame() {
+        Arrays.fill(rows, 0);
+        Arrays.fill(colors, 0);
+        version++;
+        gameOver = false;
+        score = 0;
+        lines = 0;
+        newPiece();
+    }
+
+    // One gravity tick: fall one row, or lock the piece, clear lines and spawn the next.
+    // Returns false while the piece is still falling.
+    public boolean step() {
+        if (gameOver) return true;
+        if (moveDown()) return false;
+        lockPiece();
+        return true;
+    }
+
+    public void apply(Action action) {
+        switch (action) {
+            case LEFT:   moveLeft();  break;
+            case RIGHT:  moveRight(); break;
+            case ROTATE: rotate();    break;
+            case DROP:   dropDown();  break;
+            case STEP:   step();      break;
+        }
+    }
+
+    public boolean moveDown() {
+        return tryMove(rotation, pieceX, pieceY + 1);
+    }
+
+    public boolean moveLeft() {
+        return tryMove(rotation, pieceX - 1, pieceY);
+    }
+
+    public boolean moveRight() {
+        return tryMove(rotation, pieceX + 1, pieceY);
+    }
+
+    public boolean rotate() {
+        return tryMove((rotation + 1) & 3, pieceX, pieceY);
+    }
+
+    // Falls as far as possible; the piece locks on the next step
+    public void dropDown() {
+        while (moveDown());
+    }
+
+    // Turns and shifts the piece at its current height, drops it and locks it, as a
+    // hard drop would. Returns false, changing nothing, if it does not fit there.
+    public boolean place(int newRotation, int newX) {
+        if (!tryMove(newRotation, newX, pieceY)) return false;
+        dropDown();
+        lockPiece();
+        return true;
+    }
+
+    private boolean tryMove(int newRotation, int newX, int newY) {
+        if (gameOver || !fits(piece, newRotation, newX, newY)) return false;
+        rotation = newRotation;
+        pieceX = newX;
+        pieceY = newY;
+        return true;
+    }
+
+    // Whether a piece in the given orientation fits with its top-left corner at (x, y)
+    public boolean fits(int piece, int rotation, int x, int y) {
+        int[] shape = SHAPES[piece][rotation];
+        if (x < 0 || x + SHAPE_WIDTHS[piece][rotation] > WIDTH || y + shape.length > HEIGHT) return false;
+        for (int i = 0; i < shape.length; i++) {
+            // Cells above the board never collide
+            if (y + i >= 0 && (rows[y + i] & shape[i] << x) != 0) return false;
+        }
+        return true;
+    }
+
+    private void lockPiece() {
+        int[] shape = SHAPES[piece][rotation];
+        int color = piece + 1;
+        for (int i = 0; i < shape.length; i++) {
+            int y = pieceY + i;
+            if (y < 0) continue;
+            int mask = shape[i] << pieceX;
+            rows[y] |= mask;
+            for (int x = pieceX; mask >> x != 0; x++) {
+                if ((mask >> x & 1) != 0) colors[y] |= color << COLOR_BITS * x;
+            }
+        }
+        version++;
+        clearLines();
+        newPiece();
+    }
+
+    // One pass from the bottom up: every row that is not full moves down past the
+    // full rows seen so far, and the vacated top rows are emptied
+    private void clearLines() {
+        int write = HEIGHT - 1;
+        for (int read = HEIGHT - 1; read >= 0; read--) {
+            if (rows[read] == FULL_ROW) continue;
+            rows[write] = rows[read];
+            colors[write] = colors[read];
+            write--;
+        }
+        int cleared = write + 1;
+        for (int y = 0; y < cleared; y++) {
+            rows[y] = 0;
+            colors[y] = 0;
+        }
+        score += 100 * cleared;
+        lines += cleared;
+    }
+
+    private void newPiece() {
+        piece = nextPiece.getAsInt();
+        rotation = 0;
+        pieceX = WIDTH / 2 - SHAPE_WIDTHS[piece][0] / 2;
+        pieceY = 0;
+        if (!fits(piece, rotation, pieceX, pieceY)) gameOver = true;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int score() {
+        return score;
+    }
+
+    public long linesCleared() {
+        return lines;
+    }
+
+    // Changes whenever a piece locks or the board is reset, so renderers can cache the settled cells
+    public long boardVersion() {
+        return version;
+    }
+
+    // Occupied columns of board row y as a bit mask
+    public int row(int y) {
+        return rows[y];
+    }
+
+    // 0 for an empty cell, otherwise 1 + the index of the piece that filled it
+    public int cell(int x, int y) {
+        return colors[y] >>> COLOR_BITS * x & (1 << COLOR_BITS) - 1;
+    }
+
+    public int piece() {
+        return piece;
+    }
+
+    public int rotation() {
+        return rotation;
+    }
+
+    public int pieceX() {
+        return pieceX;
+    }
+
+    public int pieceY() {
+        return pieceY;
+    }
+
+    // Row masks of a piece orientation, top row first; callers must not modify them
+    public static int[] shape(int piece, int rotation) {
+        return SHAPES[piece][rotation];
+    }
+
+    public static int shapeWidth(int piece, int rotation) {
+        return SHAPE_WIDTHS[piece][rotation];
+    }
+
+    // Number of different orientations: rotations 0..n-1 cover every placement
+    public static int distinctRotations(int piece) {
+        return DISTINCT_ROTATIONS[piece];
+    }
+
+    public static void main(String[] args) {
+        // Always an I piece: two lie flat on the floor and two stand upright in the
+        // last two columns, which completes the bottom row
+        TetrisEngine engine = new TetrisEngine(() -> 0);
+        for (int target : new int[]{0, 4, 8, 9}) {
+            if (target >= 8) engine.rotate();
+            while (engine.pieceX() > target) engine.moveLeft();
+            while (engine.pieceX() < target) engine.moveRight();
+            engine.dropDown();
+            engine.step();
+        }
+        System.out.println(Integer.toBinaryString(engine.row(HEIGHT - 1))); // Output: 1100000000
+        System.out.println(engine.score()); // Output: 100
+    }
+}
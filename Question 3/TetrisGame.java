@@ -1,52 +1,69 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Paths;
 
 public class TetrisGame extends JPanel {
-    private static final int BOARD_WIDTH = 10;
-    private static final int BOARD_HEIGHT = 20;
+    private static final int BOARD_WIDTH = TetrisEngine.WIDTH;
+    private static final int BOARD_HEIGHT = TetrisEngine.HEIGHT;
     private static final int BLOCK_SIZE = 30;
     private static final Color[] COLORS = {
         Color.CYAN, Color.YELLOW, Color.MAGENTA, 
         Color.ORANGE, Color.BLUE, Color.GREEN, Color.RED
     };
     
-    private final int[][] board = new int[BOARD_HEIGHT][BOARD_WIDTH];
-    private final int[][][] tetrominoes = {
-        {{1,1,1,1}},           // I
-        {{1,1}, {1,1}},        // O
-        {{1,1,1}, {0,1,0}},    // T
-        {{1,1,1}, {1,0,0}},    // L
-        {{1,1,1}, {0,0,1}},    // J
-        {{0,1,1}, {1,1,0}},    // S
-        {{1,1,0}, {0,1,1}}     // Z
-    };
+    private static final Font SCORE_FONT = new Font("Arial", Font.PLAIN, 20);
+    private static final Font GAME_OVER_FONT = new Font("Arial", Font.BOLD, 30);
+    private static final Rectangle SCORE_AREA = new Rectangle(0, 0, BLOCK_SIZE * BOARD_WIDTH, 32);
     
-    private int currentX = 5;
-    private int currentY = 0;
-    private int currentPiece;
-    private int[][] currentShape;
+    private final TetrisEngine engine;
+    private final TetrisRecorder recorder; // null when the game is not recorded
     private Timer timer;
-    private boolean isGameOver = false;
-    private int score = 0;
+    
+    // Settled cells are drawn once into this image and only redrawn after a lock;
+    // drawnCells is what the image currently shows
+    private final BufferedImage boardImage =
+            new BufferedImage(BLOCK_SIZE * BOARD_WIDTH, BLOCK_SIZE * BOARD_HEIGHT, BufferedImage.TYPE_INT_RGB);
+    private final int[][] drawnCells = new int[BOARD_HEIGHT][BOARD_WIDTH];
+    private long drawnVersion = -1;
+    private int drawnScore = -1;
+    private String scoreText;
+    
+    // Per-frame paint cost
+    private long frames, frameNanos, maxFrameNanos;
+    
+    // Repaint regions, reused so an action allocates nothing
+    private final Rectangle dirty = new Rectangle();
+    private final Rectangle pieceArea = new Rectangle();
+    private final Rectangle rowArea = new Rectangle();
     
     public TetrisGame() {
+        this(null);
+    }
+    
+    // With a recorder, every key press and timer tick is logged for headless replay
+    public TetrisGame(TetrisRecorder recorder) {
+        this.recorder = recorder;
+        this.engine = recorder != null ? new TetrisEngine(recorder.pieces()) : new TetrisEngine();
         setPreferredSize(new Dimension(BLOCK_SIZE * BOARD_WIDTH, BLOCK_SIZE * BOARD_HEIGHT));
         setBackground(Color.BLACK);
         setFocusable(true);
+        updateBoardImage();
+        updateScoreText();
         
         addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                if (isGameOver) return;
+                if (engine.isGameOver()) return;
                 
                 switch (e.getKeyCode()) {
-                    case KeyEvent.VK_LEFT:  moveLeft();  break;
-                    case KeyEvent.VK_RIGHT: moveRight(); break;
-                    case KeyEvent.VK_UP:    rotate();    break;
-                    case KeyEvent.VK_DOWN:  dropDown();  break;
+                    case KeyEvent.VK_LEFT:  act(TetrisEngine.Action.LEFT);   break;
+                    case KeyEvent.VK_RIGHT: act(TetrisEngine.Action.RIGHT);  break;
+                    case KeyEvent.VK_UP:    act(TetrisEngine.Action.ROTATE); break;
+                    case KeyEvent.VK_DOWN:  act(TetrisEngine.Action.DROP);   break;
                 }
-                repaint();
             }
         });
         
@@ -54,153 +71,147 @@ public class TetrisGame extends JPanel {
     }
     
     private void newGame() {
-        for (int i = 0; i < BOARD_HEIGHT; i++) {
-            for (int j = 0; j < BOARD_WIDTH; j++) {
-                board[i][j] = 0;
-            }
-        }
-        newPiece();
         timer = new Timer(500, e -> gameStep());
         timer.start();
     }
     
-    private void newPiece() {
-        currentPiece = (int)(Math.random() * tetrominoes.length);
-        currentShape = tetrominoes[currentPiece];
-        currentX = BOARD_WIDTH / 2 - currentShape[0].length / 2;
-        currentY = 0;
-        
-        if (!canMove(currentShape, currentX, currentY)) {
-            isGameOver = true;
+    // The panel only renders; all rules live in TetrisEngine
+    private void gameStep() {
+        act(TetrisEngine.Action.STEP);
+        if (engine.isGameOver()) {
             timer.stop();
+            closeRecorder();
         }
     }
     
-    private void gameStep() {
-        if (!moveDown()) {
-            addToBoard();
-            clearLines();
-            newPiece();
+    // Performs the action and repaints only what it changed: the piece's old and new
+    // cells, any board rows that changed, and the score
+    private void act(TetrisEngine.Action action) {
+        dirty.setBounds(pieceBounds());
+        if (recorder != null) {
+            recorder.apply(engine, action);
+        } else {
+            engine.apply(action);
         }
-        repaint();
-    }
-    
-    private boolean moveDown() {
-        return canMove(currentShape, currentX, currentY + 1) && tryMove(currentShape, currentX, currentY + 1);
-    }
-    
-    private void moveLeft() {
-        tryMove(currentShape, currentX - 1, currentY);
-    }
-    
-    private void moveRight() {
-        tryMove(currentShape, currentX + 1, currentY);
-    }
-    
-    private void rotate() {
-        int[][] rotated = new int[currentShape[0].length][currentShape.length];
-        for (int i = 0; i < currentShape.length; i++) {
-            for (int j = 0; j < currentShape[i].length; j++) {
-                rotated[j][currentShape.length - 1 - i] = currentShape[i][j];
-            }
+        
+        if (engine.isGameOver()) {
+            updateBoardImage();
+            updateScoreText();
+            repaint();
+            return;
         }
-        if (canMove(rotated, currentX, currentY)) {
-            currentShape = rotated;
+        dirty.add(pieceBounds());
+        Rectangle rows = updateBoardImage();
+        if (rows != null) dirty.add(rows);
+        if (updateScoreText()) dirty.add(SCORE_AREA);
+        repaint(dirty);
+    }
+    
+    private Rectangle pieceBounds() {
+        int piece = engine.piece(), rotation = engine.rotation();
+        pieceArea.setBounds(engine.pieceX() * BLOCK_SIZE, engine.pieceY() * BLOCK_SIZE,
+                TetrisEngine.shapeWidth(piece, rotation) * BLOCK_SIZE + 1,
+                TetrisEngine.shape(piece, rotation).length * BLOCK_SIZE + 1);
+        return pieceArea;
+    }
+    
+    // Redraws the board image if the settled cells changed; returns the changed rows
+    // in panel coordinates, or null if nothing changed
+    private Rectangle updateBoardImage() {
+        if (engine.boardVersion() == drawnVersion) return null;
+        boolean first = drawnVersion < 0;
+        drawnVersion = engine.boardVersion();
+        
+        int top = first ? 0 : BOARD_HEIGHT, bottom = first ? BOARD_HEIGHT - 1 : -1;
+        for (int i = 0; i < BOARD_HEIGHT; i++) {
+            for (int j = 0; j < BOARD_WIDTH; j++) {
+                int cell = engine.cell(j, i);
+                if (cell != drawnCells[i][j]) {
+                    drawnCells[i][j] = cell;
+                    top = Math.min(top, i);
+                    bottom = i;
+                }
+            }
         }
-    }
-    
-    private void dropDown() {
-        while (moveDown());
-    }
-    
-    private boolean canMove(int[][] shape, int newX, int newY) {
-        for (int i = 0; i < shape.length; i++) {
-            for (int j = 0; j < shape[i].length; j++) {
-                if (shape[i][j] == 0) continue;
-                
-                int x = newX + j;
-                int y = newY + i;
-                
-                if (x < 0 || x >= BOARD_WIDTH || y >= BOARD_HEIGHT) return false;
-                if (y < 0) continue;
-                if (board[y][x] != 0) return false;
+        
+        if (top > bottom) return null;
+        
+        // Only rows top..bottom are cleared and redrawn. Block outlines spill one pixel
+        // onto the next cell's edge, which is black either way, so the image matches a
+        // full redraw.
+        Graphics g = boardImage.createGraphics();
+        g.setColor(getBackground());
+        g.fillRect(0, top * BLOCK_SIZE, boardImage.getWidth(), (bottom - top + 1) * BLOCK_SIZE);
+        for (int i = top; i <= bottom; i++) {
+            for (int j = 0; j < BOARD_WIDTH; j++) {
+                if (drawnCells[i][j] > 0) drawBlock(g, j, i, COLORS[drawnCells[i][j] - 1]);
             }
         }
-        return true;
+        g.dispose();
+        
+        rowArea.setBounds(0, top * BLOCK_SIZE, BOARD_WIDTH * BLOCK_SIZE, (bottom - top + 1) * BLOCK_SIZE + 1);
+        return rowArea;
     }
     
-    private boolean tryMove(int[][] shape, int newX, int newY) {
-        if (canMove(shape, newX, newY)) {
-            currentX = newX;
-            currentY = newY;
-            return true;
-        }
-        return false;
+    // The score string is only rebuilt when the score changes
+    private boolean updateScoreText() {
+        if (engine.score() == drawnScore) return false;
+        drawnScore = engine.score();
+        scoreText = "Score: " + drawnScore;
+        return true;
     }
     
-    private void addToBoard() {
-        for (int i = 0; i < currentShape.length; i++) {
-            for (int j = 0; j < currentShape[i].length; j++) {
-                if (currentShape[i][j] == 1) {
-                    board[currentY + i][currentX + j] = currentPiece + 1;
-                }
-            }
-        }
+    public String frameStats() {
+        return String.format("%d frames, mean %.1f us, max %.1f us per frame",
+                frames, frames == 0 ? 0 : frameNanos / 1e3 / frames, maxFrameNanos / 1e3);
     }
     
-    private void clearLines() {
-        for (int i = BOARD_HEIGHT - 1; i >= 0; i--) {
-            boolean lineIsFull = true;
-            for (int j = 0; j < BOARD_WIDTH; j++) {
-                if (board[i][j] == 0) {
-                    lineIsFull = false;
-                    break;
-                }
-            }
-            if (lineIsFull) {
-                score += 100;
-                for (int k = i; k > 0; k--) {
-                    System.arraycopy(board[k-1], 0, board[k], 0, BOARD_WIDTH);
-                }
-            }
+    private void closeRecorder() {
+        if (recorder == null) return;
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            System.err.println("Could not save the input log: " + e.getMessage());
         }
     }
     
     @Override
     protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
         super.paintComponent(g);
         
-        // Draw board
-        for (int i = 0; i < BOARD_HEIGHT; i++) {
-            for (int j = 0; j < BOARD_WIDTH; j++) {
-                if (board[i][j] > 0) {
-                    drawBlock(g, j, i, COLORS[board[i][j] - 1]);
-                }
-            }
-        }
+        // Draw board; Swing clips this to the dirty region
+        g.drawImage(boardImage, 0, 0, null);
         
         // Draw current piece
-        if (!isGameOver) {
-            for (int i = 0; i < currentShape.length; i++) {
-                for (int j = 0; j < currentShape[i].length; j++) {
-                    if (currentShape[i][j] == 1) {
-                        drawBlock(g, currentX + j, currentY + i, COLORS[currentPiece]);
+        if (!engine.isGameOver()) {
+            int piece = engine.piece();
+            int[] shape = TetrisEngine.shape(piece, engine.rotation());
+            for (int i = 0; i < shape.length; i++) {
+                for (int j = 0; j < TetrisEngine.shapeWidth(piece, engine.rotation()); j++) {
+                    if ((shape[i] >> j & 1) != 0) {
+                        drawBlock(g, engine.pieceX() + j, engine.pieceY() + i, COLORS[piece]);
                     }
                 }
             }
         }
         
         // Draw game over
-        if (isGameOver) {
+        if (engine.isGameOver()) {
             g.setColor(Color.WHITE);
-            g.setFont(new Font("Arial", Font.BOLD, 30));
+            g.setFont(GAME_OVER_FONT);
             g.drawString("Game Over!", 50, BOARD_HEIGHT * BLOCK_SIZE / 2);
         }
         
         // Draw score
         g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.PLAIN, 20));
-        g.drawString("Score: " + score, 10, 25);
+        g.setFont(SCORE_FONT);
+        g.drawString(scoreText, 10, 25);
+        
+        long nanos = System.nanoTime() - start;
+        frames++;
+        frameNanos += nanos;
+        maxFrameNanos = Math.max(maxFrameNanos, nanos);
     }
     
     private void drawBlock(Graphics g, int x, int y, Color color) {
@@ -210,11 +221,22 @@ public class TetrisGame extends JPanel {
         g.drawRect(x * BLOCK_SIZE, y * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
     }
     
-    public static void main(String[] args) {
+    // Usage: java TetrisGame [input-log] records the game for TetrisRecorder.replay
+    public static void main(String[] args) throws IOException {
+        TetrisGame game = args.length > 0
+                ? new TetrisGame(new TetrisRecorder(Paths.get(args[0]), PieceSource.uniform(System.nanoTime())))
+                : new TetrisGame();
         JFrame frame = new JFrame("Tetris");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setResizable(false);
-        frame.add(new TetrisGame());
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                game.closeRecorder();
+                System.out.println(game.frameStats());
+            }
+        });
+        frame.add(game);
         frame.pack();
         frame.setLocationRelativeTo(null);
         frame.setVisible(true);
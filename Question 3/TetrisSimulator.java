@@ -0,0 +1,118 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Headless load generator: plays many independent bot games with no rendering and
+// no timer, split across the fork/join pool. Game g draws its pieces from
+// PieceSource.uniform(seed + g), so results do not depend on how the
+// games are scheduled. A game ends at game over or after maxPieces pieces.
+//
+// Usage: java TetrisSimulator [games] [maxPieces] [seed]
+public class TetrisSimulator {
+    // Games per leaf task
+    private static final int CHUNK = 16;
+
+    public static final class Result {
+        public final int[] scores;
+        public final int[] pieces;
+        public final long nanos;
+
+        Result(int[] scores, int[] pieces, long nanos) {
+            this.scores = scores;
+            this.pieces = pieces;
+            this.nanos = nanos;
+        }
+
+        public long totalPieces() {
+            long total = 0;
+            for (int p : pieces) total += p;
+            return total;
+        }
+    }
+
+    public static Result run(int games, int maxPieces, long seed) {
+        return run(games, maxPieces, seed, ForkJoinPool.commonPool());
+    }
+
+    public static Result run(int games, int maxPieces, long seed, ForkJoinPool pool) {
+        if (games < 0 || maxPieces < 0) throw new IllegalArgumentException("games and maxPieces must not be negative");
+        int[] scores = new int[games], pieces = new int[games];
+        long start = System.nanoTime();
+        pool.invoke(new GameTask(0, games, maxPieces, seed, scores, pieces));
+        return new Result(scores, pieces, System.nanoTime() - start);
+    }
+
+    // Plays one game and records its score and piece count
+    static void play(int game, int maxPieces, long seed, int[] scores, int[] pieces) {
+        TetrisEngine engine = new TetrisEngine(PieceSource.uniform(seed + game));
+        TetrisBot bot = new TetrisBot();
+        int placed = 0;
+        while (placed < maxPieces && bot.move(engine)) placed++;
+        if (engine.isGameOver() && placed < maxPieces) placed++; // the last placement, after which no piece could spawn
+        scores[game] = engine.score();
+        pieces[game] = placed;
+    }
+
+    private static class GameTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from, to, maxPieces;
+        private final long seed;
+        private final int[] scores, pieces;
+
+        GameTask(int from, int to, int maxPieces, long seed, int[] scores, int[] pieces) {
+            this.from = from;
+            this.to = to;
+            this.maxPieces = maxPieces;
+            this.seed = seed;
+            this.scores = scores;
+            this.pieces = pieces;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new GameTask(from, mid, maxPieces, seed, scores, pieces),
+                          new GameTask(mid, to, maxPieces, seed, scores, pieces));
+                return;
+            }
+            for (int game = from; game < to; game++) play(game, maxPieces, seed, scores, pieces);
+        }
+    }
+
+    // Min, quartiles, p90/p99, max and mean of the values
+    static String distribution(int[] values) {
+        if (values.length == 0) return "n/a";
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (int v : sorted) sum += v;
+        return String.format("min %d  p25 %d  median %d  p75 %d  p90 %d  p99 %d  max %d  mean %.1f",
+                sorted[0], percentile(sorted, 25), percentile(sorted, 50), percentile(sorted, 75),
+                percentile(sorted, 90), percentile(sorted, 99), sorted[sorted.length - 1], (double) sum / sorted.length);
+    }
+
+    private static int percentile(int[] sorted, int p) {
+        return sorted[(int) Math.min(sorted.length - 1, (long) sorted.length * p / 100)];
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int maxPieces = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        // Warm-up so the timed run measures compiled code
+        run(Math.min(games, 64), maxPieces, seed + games);
+
+        Result result = run(games, maxPieces, seed);
+        double seconds = result.nanos / 1e9;
+        int capped = 0;
+        for (int p : result.pieces) if (p == maxPieces) capped++;
+
+        System.out.printf("%d games, %d pieces on %d threads in %.2f s%n",
+                games, result.totalPieces(), ForkJoinPool.commonPool().getParallelism(), seconds);
+        System.out.printf("throughput: %.1f games/s, %.0f pieces/s%n", games / seconds, result.totalPieces() / seconds);
+        System.out.println("score:  " + distribution(result.scores));
+        System.out.println("pieces: " + distribution(result.pieces) + "  (" + capped + " games hit the cap)");
+    }
+}
@@ -0,0 +1,43 @@
+import java.util.Arrays;
+
+class UnionFind implements DisjointSet {
+    // parent[x] is x's parent, or -(size of the set) when x is a root
+    private final int[] parent;
+    
+    public UnionFind(int n) {
+        parent = new int[n];
+        Arrays.fill(parent, -1);
+    }
+    
+    // Iterative path halving: every visited node is pointed at its grandparent
+    public int find(int x) {
+        while (parent[x] >= 0) {
+            int p = parent[x];
+            if (parent[p] < 0) return p;
+            parent[x] = parent[p];
+            x = parent[p];
+        }
+        return x;
+    }
+    
+    public boolean union(int x, int y) {
+        int rootX = find(x);
+        int rootY = find(y);
+        
+        if (rootX == rootY) return false;
+        
+        // Union by size: hang the smaller tree under the larger one
+        if (parent[rootX] > parent[rootY]) {
+            int t = rootX;
+            rootX = rootY;
+            rootY = t;
+        }
+        parent[rootX] += parent[rootY];
+        parent[rootY] = rootX;
+        return true;
+    }
+
+    public int size(int x) {
+        return -parent[find(x)];
+    }
+}
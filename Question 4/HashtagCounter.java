@@ -0,0 +1,69 @@
+// Open-addressing counts keyed by hashtag text. A hashtag is looked up straight from
+// its range in the tweet text: the hash is computed over those characters and
+// candidates are compared in place, so a String is only created the first time a
+// hashtag is seen and counting never boxes.
+class HashtagCounter {
+    private String[] keys = new String[16];
+    private int[] hashes = new int[16];
+    private int[] counts = new int[16];
+    private int size;
+
+    // Counts text[from, to) once
+    void add(String text, int from, int to) {
+        int length = to - from;
+        int hash = 0;
+        for (int i = from; i < to; i++) hash = 31 * hash + text.charAt(i); // same as String.hashCode
+
+        int mask = keys.length - 1;
+        int slot = spread(hash) & mask;
+        for (String key; (key = keys[slot]) != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && key.length() == length && key.regionMatches(0, text, from, length)) {
+                counts[slot]++;
+                return;
+            }
+        }
+        keys[slot] = text.substring(from, to);
+        hashes[slot] = hash;
+        counts[slot] = 1;
+        if (++size * 2 > keys.length) grow();
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void grow() {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes, oldCounts = counts;
+        keys = new String[oldKeys.length * 2];
+        hashes = new int[keys.length];
+        counts = new int[keys.length];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) continue;
+            int slot = spread(oldHashes[i]) & mask;
+            while (keys[slot] != null) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            hashes[slot] = oldHashes[i];
+            counts[slot] = oldCounts[i];
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Slots 0..capacity()-1; a slot is in use when key(slot) is not null
+    int capacity() {
+        return keys.length;
+    }
+
+    String key(int slot) {
+        return keys[slot];
+    }
+
+    int count(int slot) {
+        return counts[slot];
+    }
+}
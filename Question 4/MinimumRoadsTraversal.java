@@ -1,69 +1,81 @@
 import java.util.*;
 
+// Roads form a tree. Collecting every package and coming back uses each road of the
+// minimal subtree spanning the package nodes exactly twice, so the answer is
+// 2 * (edges of that subtree). The subtree is what remains after repeatedly
+// removing leaves that hold no package.
 public class MinimumRoadsTraversal {
     public static int minRoadsToTraverse(int[] packages, int[][] roads) {
-        int n = packages.length;
-        List<List<Integer>> graph = new ArrayList<>();
-        
-        // Initialize adjacency list
-        for (int i = 0; i < n; i++) {
-            graph.add(new ArrayList<>());
-        }
-        
-        // Build the graph
-        for (int[] road : roads) {
-            graph.get(road[0]).add(road[1]);
-            graph.get(road[1]).add(road[0]);
+        int m = roads.length;
+        int[] from = new int[m], to = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = roads[i][0];
+            to[i] = roads[i][1];
         }
+        return minRoadsToTraverse(packages, from, to);
+    }
 
-        // Find all nodes with packages
-        Set<Integer> packageNodes = new HashSet<>();
-        for (int i = 0; i < n; i++) {
-            if (packages[i] == 1) {
-                packageNodes.add(i);
-            }
+    // Roads as parallel arrays: road i joins from[i] and to[i]
+    public static int minRoadsToTraverse(int[] packages, int[] from, int[] to) {
+        int n = packages.length;
+        int[] offsets = new int[n + 1];
+        int[] targets = adjacency(n, from, to, offsets);
+
+        int[] degree = new int[n];
+        for (int v = 0; v < n; v++) degree[v] = offsets[v + 1] - offsets[v];
+
+        // Step 1: Queue every leaf without a package. A node enters the queue at most
+        // once, when its degree drops to 1, so a flat array of n slots never overflows.
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (degree[v] == 1 && packages[v] == 0) queue[tail++] = v;
         }
-        
-        if (packageNodes.isEmpty()) return 0; // No packages to collect
-        
-        // Find the minimal subgraph that connects all package nodes using BFS
-        int totalEdges = 0;
-        Set<Integer> visited = new HashSet<>();
-        Queue<Integer> queue = new LinkedList<>();
-        
-        // Start BFS from any package node
-        int start = packageNodes.iterator().next();
-        queue.add(start);
-        visited.add(start);
-        
-        while (!queue.isEmpty()) {
-            int node = queue.poll();
-            
-            for (int neighbor : graph.get(node)) {
-                if (!visited.contains(neighbor)) {
-                    visited.add(neighbor);
-                    queue.add(neighbor);
-                    
-                    // If it's a relevant node (either a package or a path between them), count the edge
-                    if (packageNodes.contains(neighbor) || packageNodes.contains(node)) {
-                        totalEdges++;
-                    }
-                }
+
+        // Step 2: Prune; each removed leaf takes its one remaining road with it
+        boolean[] removed = new boolean[n];
+        int edges = from.length;
+        while (head < tail) {
+            int leaf = queue[head++];
+            removed[leaf] = true;
+            for (int i = offsets[leaf]; i < offsets[leaf + 1]; i++) {
+                int next = targets[i];
+                if (removed[next]) continue;
+                edges--;
+                if (--degree[next] == 1 && packages[next] == 0) queue[tail++] = next;
             }
         }
-        
+
         // Since we must return to the start, we multiply by 2
-        return totalEdges * 2;
+        return edges * 2;
+    }
+
+    // Compressed sparse row adjacency: the neighbours of v are
+    // targets[offsets[v] .. offsets[v + 1]). offsets must have n + 1 slots.
+    static int[] adjacency(int n, int[] from, int[] to, int[] offsets) {
+        int m = from.length;
+        for (int i = 0; i < m; i++) {
+            offsets[from[i] + 1]++;
+            offsets[to[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+
+        int[] targets = new int[2 * m];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < m; i++) {
+            targets[fill[from[i]]++] = to[i];
+            targets[fill[to[i]]++] = from[i];
+        }
+        return targets;
     }
 
     public static void main(String[] args) {
         int[] packages1 = {1, 0, 0, 0, 0, 1};
         int[][] roads1 = {{0, 1}, {1, 2}, {2, 3}, {3, 4}, {4, 5}};
-        System.out.println(minRoadsToTraverse(packages1, roads1)); 
+        System.out.println(minRoadsToTraverse(packages1, roads1)); // Output: 10
 
         int[] packages2 = {0, 0, 0, 1, 1, 0, 0, 1};
         int[][] roads2 = {{0, 1}, {0, 2}, {1, 3}, {1, 4}, {2, 5}, {5, 6}, {5, 7}};
-        System.out.println(minRoadsToTraverse(packages2, roads2)); 
+        System.out.println(minRoadsToTraverse(packages2, roads2)); // Output: 12
     }
 }
-
@@ -0,0 +1,236 @@
+import java.util.*;
+
+public class MinimumRoadsTraversalBenchmark {
+    // Original boxed BFS, kept here as the baseline being compared against. Its edge
+    // rule only counts roads touching a package node, so it is not always correct.
+    private static int minRoadsToTraverseBoxed(int[] packages, int[][] roads) {
+        int n = packages.length;
+        List<List<Integer>> graph = new ArrayList<>();
+        for (int i = 0; i < n; i++) graph.add(new ArrayList<>());
+        for (int[] road : roads) {
+            graph.get(road[0]).add(road[1]);
+            graph.get(road[1]).add(road[0]);
+        }
+
+        Set<Integer> packageNodes = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            if (packages[i] == 1) packageNodes.add(i);
+        }
+        if (packageNodes.isEmpty()) return 0;
+
+        int totalEdges = 0;
+        Set<Integer> visited = new HashSet<>();
+        Queue<Integer> queue = new LinkedList<>();
+        int start = packageNodes.iterator().next();
+        queue.add(start);
+        visited.add(start);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int neighbor : graph.get(node)) {
+                if (!visited.contains(neighbor)) {
+                    visited.add(neighbor);
+                    queue.add(neighbor);
+                    if (packageNodes.contains(neighbor) || packageNodes.contains(node)) totalEdges++;
+                }
+            }
+        }
+        return totalEdges * 2;
+    }
+
+    // Reference answer: a road belongs to the minimal subtree exactly when both
+    // sides of it hold a package. Subtree package counts come from a DFS order.
+    static long minRoadsReference(int[] packages, int[][] roads) {
+        int n = packages.length;
+        List<List<Integer>> graph = new ArrayList<>();
+        for (int i = 0; i < n; i++) graph.add(new ArrayList<>());
+        for (int[] road : roads) {
+            graph.get(road[0]).add(road[1]);
+            graph.get(road[1]).add(road[0]);
+        }
+        int total = 0;
+        for (int p : packages) total += p;
+
+        int[] parent = new int[n], order = new int[n], below = packages.clone();
+        Arrays.fill(parent, -1);
+        boolean[] seen = new boolean[n];
+        int size = 0;
+        for (int root = 0; root < n; root++) {
+            if (seen[root]) continue;
+            seen[root] = true;
+            order[size++] = root;
+            for (int k = size - 1; k < size; k++) {
+                for (int next : graph.get(order[k])) {
+                    if (!seen[next]) {
+                        seen[next] = true;
+                        parent[next] = order[k];
+                        order[size++] = next;
+                    }
+                }
+            }
+        }
+        long edges = 0;
+        for (int k = n - 1; k >= 0; k--) {
+            int v = order[k];
+            if (parent[v] < 0) continue;
+            if (below[v] > 0 && below[v] < total) edges++;
+            below[parent[v]] += below[v];
+        }
+        return 2 * edges;
+    }
+
+    // Random tree: node i > 0 hangs under a random earlier node, then labels are shuffled
+    static int[][] randomTree(int n, Random random) {
+        int[] label = new int[n];
+        for (int i = 0; i < n; i++) label[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = label[i]; label[i] = label[j]; label[j] = t;
+        }
+        int[][] roads = new int[n - 1][];
+        for (int i = 1; i < n; i++) {
+            // Mostly recent parents, which gives long paths as well as bushy parts
+            int parent = random.nextBoolean() ? i - 1 : random.nextInt(i);
+            roads[i - 1] = random.nextBoolean() ? new int[]{label[i], label[parent]} : new int[]{label[parent], label[i]};
+        }
+        return roads;
+    }
+
+    static int[] randomPackages(int n, double density, Random random) {
+        int[] packages = new int[n];
+        for (int i = 0; i < n; i++) packages[i] = random.nextDouble() < density ? 1 : 0;
+        return packages;
+    }
+
+    // Nodes holding a package, in random order and with some repeated
+    static int[] packageNodes(int[] packages, Random random) {
+        int[] nodes = new int[packages.length * 2];
+        int k = 0;
+        for (int v = 0; v < packages.length; v++) {
+            if (packages[v] == 0) continue;
+            nodes[k++] = v;
+            if (random.nextInt(4) == 0) nodes[k++] = v;
+        }
+        for (int i = k - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = nodes[i]; nodes[i] = nodes[j]; nodes[j] = t;
+        }
+        return Arrays.copyOf(nodes, k);
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+
+        int wrong = 0;
+        for (int round = 0; round < 5_000; round++) {
+            int n = 1 + random.nextInt(40);
+            int[][] roads = randomTree(n, random);
+            int[] packages = randomPackages(n, random.nextDouble() * 0.5, random);
+            long expected = minRoadsReference(packages, roads);
+            if (expected != MinimumRoadsTraversal.minRoadsToTraverse(packages, roads)) {
+                throw new AssertionError("Mismatch in round " + round);
+            }
+            if (expected != minRoadsToTraverseBoxed(packages, roads)) wrong++;
+        }
+        System.out.println("validation passed; the old BFS rule was wrong in " + wrong + " of 5000 cases");
+
+        // Index queries against the solver, with nodes unordered and repeated
+        for (int round = 0; round < 2_000; round++) {
+            int n = 1 + random.nextInt(60);
+            int[][] roads = randomTree(n, random);
+            RoadTreeIndex index = new RoadTreeIndex(n, roads);
+            for (int query = 0; query < 10; query++) {
+                int[] packages = randomPackages(n, random.nextDouble() * 0.5, random);
+                int[] nodes = packageNodes(packages, random);
+                if (index.queryCost(nodes) != MinimumRoadsTraversal.minRoadsToTraverse(packages, roads)) {
+                    throw new AssertionError("Index mismatch in round " + round);
+                }
+            }
+        }
+
+        // Tracker after every update against a fresh index query
+        for (int round = 0; round < 500; round++) {
+            int n = 1 + random.nextInt(60);
+            RoadTreeIndex index = new RoadTreeIndex(n, randomTree(n, random));
+            PackageTracker tracker = new PackageTracker(index);
+            int[] count = new int[n];
+            for (int update = 0; update < 200; update++) {
+                int v = random.nextInt(n);
+                if (count[v] > 0 && random.nextBoolean()) {
+                    tracker.removePackage(v);
+                    count[v]--;
+                } else {
+                    tracker.addPackage(v);
+                    count[v]++;
+                }
+                int k = 0;
+                int[] nodes = new int[n];
+                for (int u = 0; u < n; u++) if (count[u] > 0) nodes[k++] = u;
+                if (tracker.currentCost() != index.queryCost(Arrays.copyOf(nodes, k))) {
+                    throw new AssertionError("Tracker mismatch in round " + round);
+                }
+            }
+        }
+        System.out.println("index validation passed");
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int[][] roads = randomTree(n, random);
+        int[] packages = randomPackages(n, 0.001, random);
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            minRoadsToTraverseBoxed(packages, roads);
+            long boxedNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int result = MinimumRoadsTraversal.minRoadsToTraverse(packages, roads);
+            long prunedNanos = System.nanoTime() - start;
+
+            System.out.printf("n=%d boxed BFS %8.2f ms, CSR leaf pruning %8.2f ms (result %d)%n",
+                    n, boxedNanos / 1e6, prunedNanos / 1e6, result);
+        }
+
+        // Many small scenarios on the same roads: one index build, then per-query cost
+        long start = System.nanoTime();
+        RoadTreeIndex index = new RoadTreeIndex(n, roads);
+        long buildNanos = System.nanoTime() - start;
+        int queries = 10_000, k = 100;
+        int[][] scenarios = new int[queries][k];
+        for (int[] scenario : scenarios) {
+            for (int i = 0; i < k; i++) scenario[i] = random.nextInt(n);
+        }
+        long checksum = 0;
+        start = System.nanoTime();
+        for (int[] scenario : scenarios) checksum += index.queryCost(scenario);
+        long queryNanos = System.nanoTime() - start;
+
+        int[] scenarioMask = new int[n];
+        for (int v : scenarios[0]) scenarioMask[v] = 1;
+        if (index.queryCost(scenarios[0]) != MinimumRoadsTraversal.minRoadsToTraverse(scenarioMask, roads)) {
+            throw new AssertionError("Index differs from the solver");
+        }
+        System.out.printf("index build %8.2f ms, %d queries of %d nodes: %6.2f us per query (checksum %d)%n",
+                buildNanos / 1e6, queries, k, queryNanos / 1e3 / queries, checksum);
+
+        // Packages toggled one at a time on the same roads
+        PackageTracker tracker = new PackageTracker(index);
+        int updates = 1_000_000;
+        int[] toggled = new int[updates];
+        for (int i = 0; i < updates; i++) toggled[i] = random.nextInt(n);
+        boolean[] present = new boolean[n];
+        start = System.nanoTime();
+        for (int v : toggled) {
+            if (present[v]) {
+                tracker.removePackage(v);
+            } else {
+                tracker.addPackage(v);
+            }
+            present[v] = !present[v];
+        }
+        long trackerNanos = System.nanoTime() - start;
+        int[] mask = new int[n];
+        for (int v = 0; v < n; v++) mask[v] = present[v] ? 1 : 0;
+        if (tracker.currentCost() != MinimumRoadsTraversal.minRoadsToTraverse(mask, roads)) {
+            throw new AssertionError("Tracker differs from the solver");
+        }
+        System.out.printf("%d package updates: %6.2f us per update%n", updates, trackerNanos / 1e3 / updates);
+    }
+}
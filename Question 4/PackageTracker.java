@@ -0,0 +1,92 @@
+// Keeps the minimum traversal cost up to date while packages appear and disappear.
+//
+// As in RoadTreeIndex, the cost is the sum of tree distances between consecutive
+// package nodes in cyclic entry-time order. Adding node t between its cyclic
+// neighbours p and q in that order changes the sum by d(p, t) + d(t, q) - d(p, q);
+// removing it undoes that. The active entry times live in a Fenwick tree, where
+// the neighbours are found by rank, so every update is O(log n).
+public class PackageTracker {
+    private final RoadTreeIndex index;
+    private final int n;
+    private final int[] fenwick;    // counts of active nodes by entry time
+    private final int[] packages;   // packages waiting at each node
+    private int active;             // nodes holding at least one package
+    private long cost;
+
+    public PackageTracker(RoadTreeIndex index) {
+        this.index = index;
+        this.n = index.size();
+        this.fenwick = new int[n + 1];
+        this.packages = new int[n];
+    }
+
+    public void addPackage(int node) {
+        if (packages[node]++ > 0) return;
+        int time = index.entryTime(node);
+        if (active > 0) {
+            int rank = countBefore(time);
+            int p = index.nodeAt(timeAtRank(rank == 0 ? active : rank));
+            int q = index.nodeAt(timeAtRank(rank == active ? 1 : rank + 1));
+            cost += index.distance(p, node) + index.distance(node, q) - index.distance(p, q);
+        }
+        update(time, 1);
+        active++;
+    }
+
+    public void removePackage(int node) {
+        if (packages[node] == 0) throw new IllegalArgumentException("No package at node " + node);
+        if (--packages[node] > 0) return;
+        int time = index.entryTime(node);
+        update(time, -1);
+        active--;
+        if (active > 0) {
+            int rank = countBefore(time);
+            int p = index.nodeAt(timeAtRank(rank == 0 ? active : rank));
+            int q = index.nodeAt(timeAtRank(rank == active ? 1 : rank + 1));
+            cost -= index.distance(p, node) + index.distance(node, q) - index.distance(p, q);
+        }
+    }
+
+    // Roads walked to collect every current package and return
+    public long currentCost() {
+        return cost;
+    }
+
+    // Number of active entry times below time
+    private int countBefore(int time) {
+        int count = 0;
+        for (int i = time; i > 0; i -= i & -i) count += fenwick[i];
+        return count;
+    }
+
+    // The rank-th smallest active entry time (1-based), by descending the tree
+    private int timeAtRank(int rank) {
+        int position = 0;
+        for (int step = Integer.highestOneBit(n); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= n && fenwick[next] < rank) {
+                position = next;
+                rank -= fenwick[next];
+            }
+        }
+        return position;
+    }
+
+    private void update(int time, int delta) {
+        for (int i = time + 1; i <= n; i += i & -i) fenwick[i] += delta;
+    }
+
+    public static void main(String[] args) {
+        int[][] roads = {{0, 1}, {0, 2}, {1, 3}, {1, 4}, {2, 5}, {5, 6}, {5, 7}};
+        PackageTracker tracker = new PackageTracker(new RoadTreeIndex(8, roads));
+        tracker.addPackage(3);
+        tracker.addPackage(4);
+        System.out.println(tracker.currentCost()); // Output: 4
+
+        tracker.addPackage(7);
+        System.out.println(tracker.currentCost()); // Output: 12
+
+        tracker.removePackage(3);
+        System.out.println(tracker.currentCost()); // Output: 10
+    }
+}
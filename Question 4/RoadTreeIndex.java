@@ -0,0 +1,142 @@
+import java.util.Arrays;
+
+// Preprocessed road tree for answering many package sets on the same roads.
+//
+// A DFS numbers the nodes in visiting order (entry times). Walking the package
+// nodes in entry-time order and returning to the first one traverses every road of
+// their minimal subtree exactly twice, so the answer is the sum of tree distances
+// between consecutive nodes in that cyclic order. Distances come from depths and
+// the lowest common ancestor, found with a sparse table over the DFS order: for
+// entry(u) < entry(v), the LCA is the parent of the shallowest node with entry time
+// in (entry(u), entry(v)].
+//
+// Build is O(n log n); a query over k nodes is O(k log k), independent of n.
+public class RoadTreeIndex {
+    private final int n;
+    private final int[] parent, depth;
+    private final int[] entry;      // entry time of each node
+    private final int[] order;      // node with each entry time
+    private final int[] component;  // root of each node's tree, for road networks that are forests
+    private final int[][] sparse;   // sparse[j][t]: shallowest node among order[t .. t + 2^j)
+
+    public RoadTreeIndex(int n, int[][] roads) {
+        this(n, column(roads, 0), column(roads, 1));
+    }
+
+    // Roads as parallel arrays: road i joins from[i] and to[i]
+    public RoadTreeIndex(int n, int[] from, int[] to) {
+        this.n = n;
+        int[] offsets = new int[n + 1];
+        int[] targets = MinimumRoadsTraversal.adjacency(n, from, to, offsets);
+
+        parent = new int[n];
+        depth = new int[n];
+        entry = new int[n];
+        order = new int[n];
+        component = new int[n];
+
+        // Iterative DFS; next[v] is the adjacency position v continues from
+        int[] stack = new int[n];
+        int[] next = new int[n];
+        boolean[] seen = new boolean[n];
+        int time = 0;
+        for (int root = 0; root < n; root++) {
+            if (seen[root]) continue;
+            seen[root] = true;
+            parent[root] = -1;
+            component[root] = root;
+            entry[root] = time;
+            order[time++] = root;
+            next[root] = offsets[root];
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                int v = stack[top - 1];
+                if (next[v] == offsets[v + 1]) {
+                    top--;
+                    continue;
+                }
+                int w = targets[next[v]++];
+                if (seen[w]) continue;
+                seen[w] = true;
+                parent[w] = v;
+                depth[w] = depth[v] + 1;
+                component[w] = root;
+                entry[w] = time;
+                order[time++] = w;
+                next[w] = offsets[w];
+                stack[top++] = w;
+            }
+        }
+
+        int levels = 1;
+        while (1 << levels <= n) levels++;
+        sparse = new int[levels][];
+        sparse[0] = order;
+        for (int j = 1; j < levels; j++) {
+            int[] previous = sparse[j - 1], current = new int[n - (1 << j) + 1];
+            int half = 1 << (j - 1);
+            for (int t = 0; t < current.length; t++) current[t] = shallower(previous[t], previous[t + half]);
+            sparse[j] = current;
+        }
+    }
+
+    private static int[] column(int[][] roads, int c) {
+        int[] values = new int[roads.length];
+        for (int i = 0; i < roads.length; i++) values[i] = roads[i][c];
+        return values;
+    }
+
+    private int shallower(int u, int v) {
+        return depth[u] <= depth[v] ? u : v;
+    }
+
+    // Roads walked to collect packages at the given nodes and return; duplicates are allowed
+    public long queryCost(int[] packageNodes) {
+        int k = packageNodes.length;
+        int[] times = new int[k];
+        for (int i = 0; i < k; i++) times[i] = entry[packageNodes[i]];
+        Arrays.sort(times);
+
+        long total = 0;
+        for (int i = 1; i < k; i++) total += distance(order[times[i - 1]], order[times[i]]);
+        if (k > 1) total += distance(order[times[k - 1]], order[times[0]]);
+        return total;
+    }
+
+    public int lca(int u, int v) {
+        if (component[u] != component[v]) throw new IllegalArgumentException(u + " and " + v + " are not connected");
+        if (u == v) return u;
+        int a = entry[u], b = entry[v];
+        if (a > b) {
+            int t = a; a = b; b = t;
+        }
+        // Shallowest node with entry time in (a, b]; its parent is the LCA
+        int j = 31 - Integer.numberOfLeadingZeros(b - a);
+        return parent[shallower(sparse[j][a + 1], sparse[j][b - (1 << j) + 1])];
+    }
+
+    public int distance(int u, int v) {
+        return depth[u] + depth[v] - 2 * depth[lca(u, v)];
+    }
+
+    int entryTime(int v) {
+        return entry[v];
+    }
+
+    int nodeAt(int time) {
+        return order[time];
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public static void main(String[] args) {
+        int[][] roads = {{0, 1}, {0, 2}, {1, 3}, {1, 4}, {2, 5}, {5, 6}, {5, 7}};
+        RoadTreeIndex index = new RoadTreeIndex(8, roads);
+        System.out.println(index.queryCost(new int[]{3, 4, 7})); // Output: 12
+        System.out.println(index.queryCost(new int[]{6, 7}));    // Output: 4
+        System.out.println(index.queryCost(new int[]{4}));       // Output: 0
+    }
+}
@@ -1,36 +1,127 @@
 import java.util.*;
-import java.util.regex.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
 class TrendingHashtags {
+    // Used only for dates the fast check below cannot decide
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
     public static List<Map.Entry<String, Integer>> findTopTrendingHashtags(
             List<Tweet> tweets) {
-        Map<String, Integer> hashtagCount = new HashMap<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        return findTopTrendingHashtags(tweets, 3);
+    }
+
+    // The k most used hashtags of February 2024, by count (descending), then lexicographically
+    public static List<Map.Entry<String, Integer>> findTopTrendingHashtags(
+            List<Tweet> tweets, int k) {
+        if (k < 0) throw new IllegalArgumentException("k must not be negative");
+        HashtagCounter hashtagCount = new HashtagCounter();
 
         // Extract hashtags from tweets in February 2024
         for (Tweet tweet : tweets) {
-            LocalDate tweetDate = LocalDate.parse(tweet.tweetDate, formatter);
-            
-            if (tweetDate.getYear() == 2024 && tweetDate.getMonthValue() == 2) {
-                // Extract hashtags using regex
-                Matcher matcher = Pattern.compile("#\\w+").matcher(tweet.tweetText);
-                while (matcher.find()) {
-                    String hashtag = matcher.group();
-                    hashtagCount.put(hashtag, hashtagCount.getOrDefault(hashtag, 0) + 1);
-                }
+            if (isFebruary2024(tweet.tweetDate)) {
+                countHashtags(tweet.tweetText, hashtagCount);
             }
         }
 
-        // Sort hashtags by count (descending), then lexicographically
-        List<Map.Entry<String, Integer>> sortedHashtags = new ArrayList<>(hashtagCount.entrySet());
-        sortedHashtags.sort((a, b) -> 
-            b.getValue().equals(a.getValue()) ? a.getKey().compareTo(b.getKey()) : b.getValue() - a.getValue()
-        );
+        return topK(hashtagCount, k);
+    }
+
+    // Keeps the best k slots in a min-heap whose root is the weakest kept hashtag, so
+    // each candidate costs one comparison and at most O(log k) to replace the root
+    static List<Map.Entry<String, Integer>> topK(HashtagCounter counts, int k) {
+        int[] heap = new int[Math.min(k, counts.size())];
+        int size = 0;
+        for (int slot = 0; slot < counts.capacity() && heap.length > 0; slot++) {
+            if (counts.key(slot) == null) continue;
+            if (size < heap.length) {
+                heap[size] = slot;
+                siftUp(heap, size++, counts);
+            } else if (ranksAbove(counts, slot, heap[0])) {
+                heap[0] = slot;
+                siftDown(heap, size, 0, counts);
+            }
+        }
+
+        // Popping yields the weakest first, so the list is reversed at the end
+        List<Map.Entry<String, Integer>> top = new ArrayList<>(size);
+        while (size > 0) {
+            int slot = heap[0];
+            top.add(new AbstractMap.SimpleEntry<>(counts.key(slot), counts.count(slot)));
+            heap[0] = heap[--size];
+            siftDown(heap, size, 0, counts);
+        }
+        Collections.reverse(top);
+        return top;
+    }
+
+    // Higher count first, then the lexicographically smaller hashtag
+    private static boolean ranksAbove(HashtagCounter counts, int a, int b) {
+        int ca = counts.count(a), cb = counts.count(b);
+        return ca != cb ? ca > cb : counts.key(a).compareTo(counts.key(b)) < 0;
+    }
+
+    private static void siftUp(int[] heap, int i, HashtagCounter counts) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!ranksAbove(counts, heap[parent], heap[i])) break;
+            int t = heap[parent]; heap[parent] = heap[i]; heap[i] = t;
+            i = parent;
+        }
+    }
 
-        // Return top 3 hashtags
-        return sortedHashtags.subList(0, Math.min(3, sortedHashtags.size()));
+    private static void siftDown(int[] heap, int size, int i, HashtagCounter counts) {
+        while (true) {
+            int weakest = i, left = 2 * i + 1, right = left + 1;
+            if (left < size && ranksAbove(counts, heap[weakest], heap[left])) weakest = left;
+            if (right < size && ranksAbove(counts, heap[weakest], heap[right])) weakest = right;
+            if (weakest == i) return;
+            int t = heap[i]; heap[i] = heap[weakest]; heap[weakest] = t;
+            i = weakest;
+        }
+    }
+
+    // Same answer as parsing with FORMATTER and checking year and month. A plain
+    // ASCII yyyy-MM-dd with month 1..12 and day 1..31 always parses, so only its
+    // digits are compared; anything else goes through the formatter, which also
+    // keeps its exceptions for malformed dates.
+    static boolean isFebruary2024(String date) {
+        if (date.length() == 10 && date.charAt(4) == '-' && date.charAt(7) == '-') {
+            int year = digits(date, 0, 4), month = digits(date, 5, 7), day = digits(date, 8, 10);
+            if (year > 0 && month >= 1 && month <= 12 && day >= 1 && day <= 31) {
+                return year == 2024 && month == 2;
+            }
+        }
+        LocalDate tweetDate = LocalDate.parse(date, FORMATTER);
+        return tweetDate.getYear() == 2024 && tweetDate.getMonthValue() == 2;
+    }
+
+    // Decimal value of s[from, to), or -1 if any character is not an ASCII digit
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    // Counts every match of #\w+, scanning the text once without a regex
+    static void countHashtags(String text, HashtagCounter counts) {
+        int length = text.length();
+        int i = text.indexOf('#');
+        while (i >= 0 && i + 1 < length) {
+            int end = i + 1;
+            while (end < length && isWordChar(text.charAt(end))) end++;
+            if (end > i + 1) counts.add(text, i, end);
+            i = text.indexOf('#', Math.max(end, i + 1));
+        }
+    }
+
+    // \w without UNICODE_CHARACTER_CLASS: [a-zA-Z_0-9]
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
     }
 
     public static void main(String[] args) {
@@ -56,16 +147,3 @@ class TrendingHashtags {
         System.out.println("+------------+-------+");
     }
 }
-
-// Tweet class to represent a tweet entry
-class Tweet {
-    int userId, tweetId;
-    String tweetText, tweetDate;
-
-    public Tweet(int userId, int tweetId, String tweetText, String tweetDate) {
-        this.userId = userId;
-        this.tweetId = tweetId;
-        this.tweetText = tweetText;
-        this.tweetDate = tweetDate;
-    }
-}
@@ -0,0 +1,148 @@
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.regex.*;
+
+public class TrendingHashtagsBenchmark {
+    // Original regex, LocalDate and full-sort path, kept here as the baseline being compared against
+    private static List<Map.Entry<String, Integer>> findTopTrendingHashtagsRegex(List<Tweet> tweets) {
+        return findTopTrendingHashtagsRegex(tweets, 3);
+    }
+
+    private static List<Map.Entry<String, Integer>> findTopTrendingHashtagsRegex(List<Tweet> tweets, int k) {
+        Map<String, Integer> hashtagCount = new HashMap<>();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        for (Tweet tweet : tweets) {
+            LocalDate tweetDate = LocalDate.parse(tweet.tweetDate, formatter);
+            if (tweetDate.getYear() == 2024 && tweetDate.getMonthValue() == 2) {
+                Matcher matcher = Pattern.compile("#\\w+").matcher(tweet.tweetText);
+                while (matcher.find()) {
+                    String hashtag = matcher.group();
+                    hashtagCount.put(hashtag, hashtagCount.getOrDefault(hashtag, 0) + 1);
+                }
+            }
+        }
+        List<Map.Entry<String, Integer>> sortedHashtags = new ArrayList<>(hashtagCount.entrySet());
+        sortedHashtags.sort((a, b) ->
+            b.getValue().equals(a.getValue()) ? a.getKey().compareTo(b.getKey()) : b.getValue() - a.getValue()
+        );
+        return sortedHashtags.subList(0, Math.min(k, sortedHashtags.size()));
+    }
+
+    private static final String[] FILLER = {"great", "day", "tech", "news", "#", "##", "#!", "x#y", "café", "#_", "#über", "a"};
+
+    // Tweets over several months with a skewed hashtag vocabulary, including edge
+    // cases such as "##tag", a trailing "#", non-ASCII letters and February 29/31
+    static List<Tweet> randomTweets(int count, int vocabulary, Random random) {
+        String[] dates = {"2024-02-01", "2024-02-29", "2024-02-31", "2024-01-31", "2024-03-01", "2023-02-14", "2025-02-10"};
+        List<Tweet> tweets = new ArrayList<>(count);
+        StringBuilder text = new StringBuilder();
+        for (int id = 0; id < count; id++) {
+            text.setLength(0);
+            int words = 3 + random.nextInt(10);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) text.append(random.nextInt(8) == 0 ? "," : " ");
+                if (random.nextInt(3) == 0) {
+                    // Squaring skews the choice towards small ids, so some tags trend
+                    double u = random.nextDouble();
+                    text.append(random.nextInt(20) == 0 ? "##" : "#").append("Tag").append((int) (u * u * vocabulary));
+                } else {
+                    text.append(FILLER[random.nextInt(FILLER.length)]);
+                }
+            }
+            String date = random.nextInt(4) == 0 ? dates[random.nextInt(dates.length)] : "2024-02-1" + random.nextInt(10);
+            tweets.add(new Tweet(id, id, text.toString(), date));
+        }
+        return tweets;
+    }
+
+    private static boolean sameResult(List<Map.Entry<String, Integer>> a, List<Map.Entry<String, Integer>> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).getKey().equals(b.get(i).getKey()) || !a.get(i).getValue().equals(b.get(i).getValue())) return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+
+        for (int round = 0; round < 500; round++) {
+            List<Tweet> tweets = randomTweets(random.nextInt(200), 1 + random.nextInt(30), random);
+            if (!sameResult(findTopTrendingHashtagsRegex(tweets), TrendingHashtags.findTopTrendingHashtags(tweets))) {
+                throw new AssertionError("Mismatch in round " + round);
+            }
+        }
+        // Any k against the full sort
+        for (int round = 0; round < 500; round++) {
+            List<Tweet> tweets = randomTweets(random.nextInt(300), 1 + random.nextInt(50), random);
+            int k = random.nextInt(60);
+            List<Map.Entry<String, Integer>> all = findTopTrendingHashtagsRegex(tweets, Integer.MAX_VALUE);
+            if (!sameResult(all.subList(0, Math.min(k, all.size())), TrendingHashtags.findTopTrendingHashtags(tweets, k))) {
+                throw new AssertionError("Top-" + k + " mismatch in round " + round);
+            }
+        }
+        // Malformed dates must fail the same way as before
+        for (String date : new String[]{"2024-2-01", "2024-02-32", "2024/02/01", "2024-13-01"}) {
+            List<Tweet> tweets = List.of(new Tweet(1, 1, "#Tag", date));
+            String expected, actual;
+            try {
+                expected = findTopTrendingHashtagsRegex(tweets).toString();
+            } catch (RuntimeException e) {
+                expected = e.getClass().getName();
+            }
+            try {
+                actual = TrendingHashtags.findTopTrendingHashtags(tweets).toString();
+            } catch (RuntimeException e) {
+                actual = e.getClass().getName();
+            }
+            if (!expected.equals(actual)) throw new AssertionError(date + ": " + expected + " vs " + actual);
+        }
+        System.out.println("validation passed");
+
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int vocabulary = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        List<Tweet> tweets = randomTweets(count, vocabulary, random);
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            List<Map.Entry<String, Integer>> expected = findTopTrendingHashtagsRegex(tweets);
+            long regexNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<Map.Entry<String, Integer>> actual = TrendingHashtags.findTopTrendingHashtags(tweets);
+            long scanNanos = System.nanoTime() - start;
+
+            if (!sameResult(expected, actual)) throw new AssertionError("Results differ: " + expected + " vs " + actual);
+            System.out.printf("%d tweets: regex %10.0f tweets/s, scanner %10.0f tweets/s %s%n",
+                    count, count / (regexNanos / 1e9), count / (scanNanos / 1e9), actual);
+        }
+
+        // Selection alone over millions of distinct hashtags: full sort versus bounded heap
+        int distinct = args.length > 2 ? Integer.parseInt(args[2]) : 2_000_000;
+        HashtagCounter counts = new HashtagCounter();
+        for (int i = 0; i < distinct; i++) {
+            String tag = "#Tag" + i;
+            for (int c = random.nextInt(1 + random.nextInt(50)); c >= 0; c--) counts.add(tag, 0, tag.length());
+        }
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            List<Map.Entry<String, Integer>> sorted = new ArrayList<>(counts.size());
+            for (int slot = 0; slot < counts.capacity(); slot++) {
+                if (counts.key(slot) != null) sorted.add(new AbstractMap.SimpleEntry<>(counts.key(slot), counts.count(slot)));
+            }
+            sorted.sort((a, b) ->
+                b.getValue().equals(a.getValue()) ? a.getKey().compareTo(b.getKey()) : b.getValue() - a.getValue()
+            );
+            List<Map.Entry<String, Integer>> expected = sorted.subList(0, 10);
+            long sortNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<Map.Entry<String, Integer>> actual = TrendingHashtags.topK(counts, 10);
+            long heapNanos = System.nanoTime() - start;
+
+            if (!sameResult(expected, actual)) throw new AssertionError("Top-10 differs: " + expected + " vs " + actual);
+            System.out.printf("%d distinct hashtags, top 10: full sort %8.2f ms, bounded heap %8.2f ms%n",
+                    distinct, sortNanos / 1e6, heapNanos / 1e6);
+        }
+    }
+}
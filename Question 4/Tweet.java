@@ -0,0 +1,12 @@
+// Tweet class to represent a tweet entry
+class Tweet {
+    int userId, tweetId;
+    String tweetText, tweetDate;
+
+    public Tweet(int userId, int tweetId, String tweetText, String tweetDate) {
+        this.userId = userId;
+        this.tweetId = tweetId;
+        this.tweetText = tweetText;
+        this.tweetDate = tweetDate;
+    }
+}